@@ -20,8 +20,11 @@ inline fun KyrieDrawable.Builder.ellipse(init: EllipseNode.Builder.() -> Unit) {
     child(EllipseNode.builder().apply(init))
 }
 
-inline fun KyrieDrawable.Builder.group(init: GroupNode.Builder.() -> Unit) {
-    child(GroupNode.builder().apply(init))
+inline fun KyrieDrawable.Builder.group(
+        cacheAsBitmap: Boolean = false,
+        init: GroupNode.Builder.() -> Unit
+) {
+    child(GroupNode.builder().cacheAsBitmap(cacheAsBitmap).apply(init))
 }
 
 inline fun KyrieDrawable.Builder.line(init: LineNode.Builder.() -> Unit) {
@@ -47,8 +50,10 @@ inline fun GroupNode.Builder.clipPath(init: ClipPathNode.Builder.() -> Unit): Gr
 inline fun GroupNode.Builder.ellipse(init: EllipseNode.Builder.() -> Unit): GroupNode.Builder =
         child(EllipseNode.builder().apply(init))
 
-inline fun GroupNode.Builder.group(init: GroupNode.Builder.() -> Unit): GroupNode.Builder =
-        child(GroupNode.builder().apply(init))
+inline fun GroupNode.Builder.group(
+        cacheAsBitmap: Boolean = false,
+        init: GroupNode.Builder.() -> Unit
+): GroupNode.Builder = child(GroupNode.builder().cacheAsBitmap(cacheAsBitmap).apply(init))
 
 inline fun GroupNode.Builder.line(init: LineNode.Builder.() -> Unit): GroupNode.Builder =
         child(LineNode.builder().apply(init))
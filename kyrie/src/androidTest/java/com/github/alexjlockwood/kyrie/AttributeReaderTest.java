@@ -0,0 +1,59 @@
+package com.github.alexjlockwood.kyrie;
+
+import android.content.Context;
+import android.content.res.XmlResourceParser;
+import android.graphics.Color;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.github.alexjlockwood.kyrie.test.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class AttributeReaderTest {
+
+  @Test
+  public void readsLowAlphaColorsFromCompiledResources() throws Exception {
+    final Context context = InstrumentationRegistry.getContext();
+    final XmlResourceParser parser = context.getResources().getXml(R.drawable.low_alpha_colors);
+    try {
+      final AttributeReader reader = AttributeReader.forResource(context, parser);
+
+      // Compiled as "#ffffff", without the transparent alpha.
+      moveToNextPath(parser);
+      AttributeReader.Attributes a = reader.obtainAttributes(Styleable.PATH);
+      assertEquals(0x00FFFFFF, a.getColor("fillColor", Styleable.Path.FILL_COLOR, Color.RED));
+      // Compiled as "#8000000", which has seven digits.
+      assertEquals(0x08000000, a.getColor("strokeColor", Styleable.Path.STROKE_COLOR, Color.RED));
+      a.recycle();
+
+      // Compiled as "#0".
+      moveToNextPath(parser);
+      a = reader.obtainAttributes(Styleable.PATH);
+      assertEquals(0x00000000, a.getColor("fillColor", Styleable.Path.FILL_COLOR, Color.RED));
+      assertEquals(0x80FF0000, a.getColor("strokeColor", Styleable.Path.STROKE_COLOR, Color.RED));
+      a.recycle();
+    } finally {
+      parser.close();
+    }
+  }
+
+  private static void moveToNextPath(XmlPullParser parser)
+      throws XmlPullParserException, IOException {
+    int type;
+    while ((type = parser.next()) != XmlPullParser.END_DOCUMENT) {
+      if (type == XmlPullParser.START_TAG && "path".equals(parser.getName())) {
+        return;
+      }
+    }
+    throw new XmlPullParserException("No path found");
+  }
+}
@@ -35,7 +35,7 @@ public final class Animation<T, V> {
    */
   @NonNull
   public static Animation<Float, Float> ofFloat(Float... values) {
-    return ofObject(new FloatValueEvaluator(), values);
+    return ofObject(FLOAT_EVALUATOR, values);
   }
 
   /**
@@ -47,7 +47,7 @@ public final class Animation<T, V> {
   @NonNull
   @SafeVarargs
   public static Animation<Float, Float> ofFloat(Keyframe<Float>... values) {
-    return ofObject(new FloatValueEvaluator(), values);
+    return ofObject(FLOAT_EVALUATOR, values);
   }
 
   /**
@@ -63,7 +63,7 @@ public final class Animation<T, V> {
    */
   @NonNull
   public static Animation<Integer, Integer> ofArgb(Integer... values) {
-    return ofObject(new ArgbValueEvaluator(), values);
+    return ofObject(ARGB_EVALUATOR, values);
   }
 
   /**
@@ -75,7 +75,7 @@ public final class Animation<T, V> {
   @NonNull
   @SafeVarargs
   public static Animation<Integer, Integer> ofArgb(Keyframe<Integer>... values) {
-    return ofObject(new ArgbValueEvaluator(), values);
+    return ofObject(ARGB_EVALUATOR, values);
   }
 
   /**
@@ -143,8 +143,7 @@ public final class Animation<T, V> {
     if (values.length < 1) {
       throw new IllegalArgumentException("Must specify at least one value");
     }
-    return new Animation<>(
-        KeyframeSet.ofObject(evaluator, values), new IdentityValueTransformer<V>());
+    return new Animation<>(KeyframeSet.ofObject(evaluator, values), Animation.<V>identity());
   }
 
   @NonNull
@@ -152,8 +151,18 @@ public final class Animation<T, V> {
     if (values.length < 1) {
       throw new IllegalArgumentException("Must specify at least one keyframe");
     }
-    return new Animation<>(
-        KeyframeSet.ofObject(evaluator, values), new IdentityValueTransformer<V>());
+    return new Animation<>(KeyframeSet.ofObject(evaluator, values), Animation.<V>identity());
+  }
+
+  /**
+   * Constructs an {@link Animation} with a duration of 0 that always evaluates to the given value.
+   * Unlike animations created with {@link #ofFloat(Float...)} etc., constant animations don't
+   * allocate any keyframes, so they are cheap enough to use for every unanimated node property.
+   * Constant animations are stateless, so they can be shared by multiple properties.
+   */
+  @NonNull
+  static <V> Animation<V, V> ofConstant(V value) {
+    return new Animation<>(KeyframeSet.ofConstant(value), Animation.<V>identity()).duration(0);
   }
 
   /**
@@ -170,7 +179,7 @@ public final class Animation<T, V> {
     if (path.isEmpty()) {
       throw new IllegalArgumentException("The path must not be empty");
     }
-    return new Animation<>(KeyframeSet.ofPath(path), new IdentityValueTransformer<PointF>());
+    return new Animation<>(KeyframeSet.ofPath(path), Animation.<PointF>identity());
   }
 
   /**
@@ -449,6 +458,16 @@ public final class Animation<T, V> {
     T transformBack(V value);
   }
 
+  @NonNull
+  @SuppressWarnings("unchecked")
+  private static <V> IdentityValueTransformer<V> identity() {
+    // The identity transformer is stateless, so a single instance is shared by all animations.
+    return (IdentityValueTransformer<V>) IDENTITY_TRANSFORMER;
+  }
+
+  private static final IdentityValueTransformer<?> IDENTITY_TRANSFORMER =
+      new IdentityValueTransformer<>();
+
   private static class IdentityValueTransformer<V> implements BidirectionalValueTransformer<V, V> {
     @NonNull
     @Override
@@ -468,6 +487,10 @@ public final class Animation<T, V> {
     T evaluate(float fraction, T startValue, T endValue);
   }
 
+  // The float and color evaluators are stateless, so they are shared by all animations.
+  private static final ValueEvaluator<Float> FLOAT_EVALUATOR = new FloatValueEvaluator();
+  private static final ValueEvaluator<Integer> ARGB_EVALUATOR = new ArgbValueEvaluator();
+
   private static final class FloatValueEvaluator implements ValueEvaluator<Float> {
     @NonNull
     @Override
@@ -0,0 +1,63 @@
+package com.github.alexjlockwood.kyrie;
+
+import android.support.annotation.NonNull;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A copy-on-write list of a node property's animations. Builders start out with a list that wraps
+ * a shared, read-only list containing the property's default value, and only allocate a list of
+ * their own once the property's animations are changed.
+ *
+ * @param <T> The property's value type.
+ */
+final class AnimationList<T> extends AbstractList<Animation<?, T>> implements RandomAccess {
+  @NonNull private List<Animation<?, T>> animations;
+  private boolean isShared;
+
+  /**
+   * Creates a new list that initially contains the same animations as the given list. The given
+   * list is never modified.
+   */
+  AnimationList(List<Animation<?, T>> sharedAnimations) {
+    this.animations = sharedAnimations;
+    this.isShared = true;
+  }
+
+  @Override
+  public Animation<?, T> get(int index) {
+    return animations.get(index);
+  }
+
+  @Override
+  public int size() {
+    return animations.size();
+  }
+
+  @Override
+  public Animation<?, T> set(int index, Animation<?, T> animation) {
+    return getMutableAnimations().set(index, animation);
+  }
+
+  @Override
+  public void add(int index, Animation<?, T> animation) {
+    getMutableAnimations().add(index, animation);
+  }
+
+  @Override
+  public Animation<?, T> remove(int index) {
+    return getMutableAnimations().remove(index);
+  }
+
+  @NonNull
+  private List<Animation<?, T>> getMutableAnimations() {
+    if (isShared) {
+      animations = new ArrayList<>(animations);
+      isShared = false;
+    }
+    return animations;
+  }
+}
@@ -0,0 +1,530 @@
+package com.github.alexjlockwood.kyrie;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.content.res.Resources.NotFoundException;
+import android.content.res.TypedArray;
+import android.support.annotation.AnyRes;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.StyleableRes;
+import android.support.v4.util.ArrayMap;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.util.TypedValue;
+import android.util.Xml;
+
+import org.xmlpull.v1.XmlPullParser;
+
+import java.util.Map;
+
+/**
+ * Reads the android attributes of the element at the current position of an {@link
+ * XmlPullParser}.
+ *
+ * <p>Literal attribute values (e.g. numbers, colors, and path data) are read straight from the
+ * parser, so no {@link TypedArray} is needed to read them. Compiled XML resources store them as
+ * typed values, which are read through the parser's {@link AttributeSet} methods, while the
+ * values of uncompiled XML documents are parsed from their strings. Only resource references and
+ * theme attributes need to be resolved: in compiled resources they are read through a {@link
+ * TypedArray}, which is obtained at most once per element and only if the element contains one.
+ * Uncompiled XML documents (e.g. documents read from a stream) can't be read through a {@link
+ * TypedArray}, so their references are looked up by name instead, and they can be read on any
+ * thread.
+ */
+abstract class AttributeReader {
+  private static final String TAG = "AttributeReader";
+
+  /** Returns a reader for the elements of a compiled XML resource. */
+  @NonNull
+  static AttributeReader forResource(Context context, XmlPullParser parser) {
+    return new ResourceReader(context, parser);
+  }
+
+  /** Returns a reader for the elements of an uncompiled XML document. */
+  @NonNull
+  static AttributeReader forDocument(Context context, XmlPullParser parser) {
+    return new DocumentReader(context, parser);
+  }
+
+  @NonNull final Context context;
+  @NonNull final XmlPullParser parser;
+
+  private AttributeReader(Context context, XmlPullParser parser) {
+    this.context = context;
+    this.parser = parser;
+  }
+
+  /**
+   * Returns the attributes of the parser's current element, indexed by the given styleable. The
+   * returned attributes must be recycled once they have been read.
+   */
+  @NonNull
+  abstract Attributes obtainAttributes(@StyleableRes int[] styleable);
+
+  /**
+   * The attributes of a single element. Each attribute is identified by both its name and its index
+   * in the styleable that the attributes were obtained with. Attributes are read by name from the
+   * parser, so they must be read before the parser moves on to another element.
+   */
+  abstract static class Attributes {
+    @NonNull final Context context;
+    @NonNull final XmlPullParser parser;
+    @NonNull final TypedValue typedValue = new TypedValue();
+
+    // The most recently resolved value. Dimensions are converted to pixels when they are resolved.
+    int type;
+    int intValue;
+    float floatValue;
+    @Nullable private String stringValue;
+    @AnyRes private int resourceId;
+
+    Attributes(Context context, XmlPullParser parser) {
+      this.context = context;
+      this.parser = parser;
+    }
+
+    /** Returns whether the element has an attribute with the given name. */
+    final boolean hasAttribute(String name) {
+      return TypedArrayUtils.hasAttribute(parser, name);
+    }
+
+    @Nullable
+    final String getString(String name, @StyleableRes int index) {
+      return resolve(name, index) ? stringValue : null;
+    }
+
+    final boolean getBoolean(String name, @StyleableRes int index, boolean defaultValue) {
+      return resolve(name, index) && isIntType(type) ? intValue != 0 : defaultValue;
+    }
+
+    final int getInt(String name, @StyleableRes int index, int defaultValue) {
+      if (!resolve(name, index)) {
+        return defaultValue;
+      }
+      if (isIntType(type)) {
+        return intValue;
+      }
+      return type == TypedValue.TYPE_FLOAT ? (int) floatValue : defaultValue;
+    }
+
+    final float getFloat(String name, @StyleableRes int index, float defaultValue) {
+      if (!resolve(name, index)) {
+        return defaultValue;
+      }
+      if (isIntType(type)) {
+        return intValue;
+      }
+      return type == TypedValue.TYPE_FLOAT || type == TypedValue.TYPE_DIMENSION
+          ? floatValue
+          : defaultValue;
+    }
+
+    /** Returns a dimension in pixels. */
+    final float getDimension(String name, @StyleableRes int index, float defaultValue) {
+      return getFloat(name, index, defaultValue);
+    }
+
+    @ColorInt
+    final int getColor(String name, @StyleableRes int index, @ColorInt int defaultValue) {
+      if (!resolve(name, index)) {
+        return defaultValue;
+      }
+      if (isColorType(type)) {
+        return intValue;
+      }
+      final ColorStateList colorStateList = getReferencedColorStateList(index);
+      return colorStateList == null ? defaultValue : colorStateList.getDefaultColor();
+    }
+
+    @Nullable
+    final ColorStateList getColorStateList(String name, @StyleableRes int index) {
+      if (!resolve(name, index)) {
+        return null;
+      }
+      return isColorType(type)
+          ? ColorStateList.valueOf(intValue)
+          : getReferencedColorStateList(index);
+    }
+
+    @AnyRes
+    final int getResourceId(String name, @StyleableRes int index, @AnyRes int defaultValue) {
+      return resolve(name, index) && resourceId != 0 ? resourceId : defaultValue;
+    }
+
+    /**
+     * Returns the {@link TypedValue} type of the attribute's value, or {@link TypedValue#TYPE_NULL}
+     * if it isn't set.
+     */
+    final int getType(String name, @StyleableRes int index) {
+      return resolve(name, index) ? type : TypedValue.TYPE_NULL;
+    }
+
+    void recycle() {}
+
+    /**
+     * Resolves a resource reference or theme attribute into {@link #typedValue}, returning false if
+     * it can't be resolved.
+     */
+    abstract boolean resolveReference(String value, @StyleableRes int index);
+
+    /** Loads the color state list that the resolved value refers to, if there is one. */
+    @Nullable
+    @SuppressWarnings("deprecation")
+    ColorStateList getReferencedColorStateList(@StyleableRes int index) {
+      if (type != TypedValue.TYPE_STRING || resourceId == 0) {
+        return null;
+      }
+      try {
+        return context.getResources().getColorStateList(resourceId);
+      } catch (NotFoundException e) {
+        Log.w(TAG, "Unable to load color state list " + stringValue, e);
+        return null;
+      }
+    }
+
+    /** Resolves the value of the named attribute, returning false if it isn't set. */
+    private boolean resolve(String name, @StyleableRes int index) {
+      final String value = parser.getAttributeValue(TypedArrayUtils.NAMESPACE, name);
+      if (value == null || value.equals("@null")) {
+        return false;
+      }
+      stringValue = value;
+      resourceId = 0;
+      if (value.startsWith("@") || value.startsWith("?")) {
+        if (!resolveReference(value, index)) {
+          return false;
+        }
+        setResolvedValue(typedValue);
+        return true;
+      }
+      resolveLiteral(name, value.trim());
+      return true;
+    }
+
+    /** Resolves the value of an attribute that isn't a resource reference or theme attribute. */
+    void resolveLiteral(String name, String value) {
+      parseLiteral(value);
+    }
+
+    private void setResolvedValue(TypedValue value) {
+      resourceId = value.resourceId;
+      type = value.type;
+      switch (type) {
+        case TypedValue.TYPE_DIMENSION:
+          floatValue = value.getDimension(context.getResources().getDisplayMetrics());
+          break;
+        case TypedValue.TYPE_FLOAT:
+          floatValue = value.getFloat();
+          break;
+        case TypedValue.TYPE_STRING:
+          // Either a string, or the path of a file resource (e.g. a color state list).
+          if (value.string != null) {
+            stringValue = value.string.toString();
+          }
+          break;
+        default:
+          intValue = value.data;
+          break;
+      }
+    }
+
+    /**
+     * Parses a literal value, in the formats that are accepted in source files and that compiled
+     * resources use to represent their values (e.g. "24dp" and "24.0dip", or "round" and "1").
+     */
+    private void parseLiteral(String value) {
+      if (value.startsWith("#")) {
+        try {
+          intValue = parseColor(value);
+          type = TypedValue.TYPE_INT_COLOR_ARGB8;
+        } catch (NumberFormatException e) {
+          type = TypedValue.TYPE_STRING;
+        }
+        return;
+      }
+      if (value.equals("true") || value.equals("false")) {
+        intValue = value.equals("true") ? 1 : 0;
+        type = TypedValue.TYPE_INT_BOOLEAN;
+        return;
+      }
+      final Integer enumValue = ENUM_VALUES.get(value);
+      if (enumValue != null) {
+        intValue = enumValue;
+        type = TypedValue.TYPE_INT_DEC;
+        return;
+      }
+      // Split the value into a number and an optional unit suffix (e.g. "24dp").
+      int unitStart = value.length();
+      while (unitStart > 0 && Character.isLetter(value.charAt(unitStart - 1))) {
+        unitStart--;
+      }
+      final String number = value.substring(0, unitStart);
+      final String unit = value.substring(unitStart);
+      try {
+        if (unit.isEmpty()) {
+          if (number.startsWith("0x")) {
+            intValue = (int) Long.parseLong(number.substring(2), 16);
+            type = TypedValue.TYPE_INT_HEX;
+            return;
+          }
+          if (number.indexOf('.') < 0) {
+            try {
+              intValue = Integer.parseInt(number);
+              type = TypedValue.TYPE_INT_DEC;
+              return;
+            } catch (NumberFormatException e) {
+              // Fall through and try to parse it as a float instead (e.g. "1e-3").
+            }
+          }
+          floatValue = Float.parseFloat(number);
+          type = TypedValue.TYPE_FLOAT;
+          return;
+        }
+        final int complexUnit = parseUnit(unit);
+        if (complexUnit >= 0) {
+          final float dimension = Float.parseFloat(number);
+          floatValue =
+              TypedValue.applyDimension(
+                  complexUnit, dimension, context.getResources().getDisplayMetrics());
+          type = TypedValue.TYPE_DIMENSION;
+          return;
+        }
+      } catch (NumberFormatException e) {
+        // Not a number, so treat it as a string below.
+      }
+      type = TypedValue.TYPE_STRING;
+    }
+  }
+
+  // <editor-fold desc="Compiled resources">
+
+  private static final class ResourceReader extends AttributeReader {
+
+    ResourceReader(Context context, XmlPullParser parser) {
+      super(context, parser);
+    }
+
+    @NonNull
+    @Override
+    Attributes obtainAttributes(@StyleableRes int[] styleable) {
+      return new ResourceAttributes(context, parser, styleable);
+    }
+  }
+
+  private static final class ResourceAttributes extends Attributes {
+    @NonNull @StyleableRes private final int[] styleable;
+    @NonNull private final AttributeSet attrs;
+
+    // Only obtained if the element contains a reference or theme attribute.
+    @Nullable private TypedArray typedArray;
+
+    ResourceAttributes(Context context, XmlPullParser parser, @StyleableRes int[] styleable) {
+      super(context, parser);
+      this.styleable = styleable;
+      attrs = Xml.asAttributeSet(parser);
+    }
+
+    @Override
+    void resolveLiteral(String name, String value) {
+      // Compiled resources store literals as typed values, and the parser returns their string
+      // forms, which aren't always in a source format: e.g. #00FFFFFF becomes "#ffffff", because
+      // the leading zeros of a color are dropped. So the string is only used to tell what kind of
+      // value it is, and the value itself is read from the parser.
+      super.resolveLiteral(name, value);
+      if (value.startsWith("#")) {
+        intValue = attrs.getAttributeIntValue(TypedArrayUtils.NAMESPACE, name, 0);
+        type = TypedValue.TYPE_INT_COLOR_ARGB8;
+      } else if (isIntType(type)) {
+        intValue = attrs.getAttributeIntValue(TypedArrayUtils.NAMESPACE, name, intValue);
+      } else if (type == TypedValue.TYPE_FLOAT) {
+        try {
+          floatValue = attrs.getAttributeFloatValue(TypedArrayUtils.NAMESPACE, name, floatValue);
+        } catch (RuntimeException e) {
+          // The value is a string that only looks like a number, so keep the parsed value.
+        }
+      }
+    }
+
+    @Override
+    boolean resolveReference(String value, @StyleableRes int index) {
+      // References are compiled into resource IDs, and theme attributes can
+      // only be resolved against the element's style, so let the framework
+      // resolve both of them.
+      return obtainTypedArray().getValue(index, typedValue);
+    }
+
+    @Nullable
+    @Override
+    ColorStateList getReferencedColorStateList(@StyleableRes int index) {
+      // Color state lists loaded through a typed array are themed.
+      return obtainTypedArray().getColorStateList(index);
+    }
+
+    @NonNull
+    private TypedArray obtainTypedArray() {
+      if (typedArray == null) {
+        typedArray = TypedArrayUtils.obtainAttributes(context, attrs, styleable);
+      }
+      return typedArray;
+    }
+
+    @Override
+    void recycle() {
+      if (typedArray != null) {
+        typedArray.recycle();
+        typedArray = null;
+      }
+    }
+  }
+
+  // </editor-fold>
+
+  // <editor-fold desc="Uncompiled documents">
+
+  private static final class DocumentReader extends AttributeReader {
+    @NonNull private final DocumentAttributes attributes;
+
+    DocumentReader(Context context, XmlPullParser parser) {
+      super(context, parser);
+      attributes = new DocumentAttributes(context, parser);
+    }
+
+    @NonNull
+    @Override
+    Attributes obtainAttributes(@StyleableRes int[] styleable) {
+      // Values are read straight from the parser, so the same instance can be used for every
+      // element, regardless of its styleable.
+      return attributes;
+    }
+  }
+
+  private static final class DocumentAttributes extends Attributes {
+
+    DocumentAttributes(Context context, XmlPullParser parser) {
+      super(context, parser);
+    }
+
+    /**
+     * Resolves a reference to a resource (e.g. {@code @color/accent} or {@code
+     * @android:interpolator/fast_out_slow_in}) or a theme attribute (e.g. {@code
+     * ?android:attr/colorAccent}), looking it up by name.
+     */
+    @Override
+    boolean resolveReference(String value, @StyleableRes int index) {
+      final Resources res = context.getResources();
+      final boolean isAttribute = value.charAt(0) == '?';
+      final int id =
+          res.getIdentifier(
+              value.substring(1), isAttribute ? "attr" : null, context.getPackageName());
+      if (id == 0) {
+        Log.w(TAG, "Unable to resolve " + value);
+        return false;
+      }
+      if (isAttribute) {
+        final Resources.Theme theme = context.getTheme();
+        if (theme == null || !theme.resolveAttribute(id, typedValue, true)) {
+          Log.w(TAG, "Unable to resolve " + value);
+          return false;
+        }
+      } else {
+        try {
+          res.getValue(id, typedValue, true);
+        } catch (NotFoundException e) {
+          Log.w(TAG, "Unable to resolve " + value, e);
+          return false;
+        }
+      }
+      if (typedValue.resourceId == 0) {
+        typedValue.resourceId = id;
+      }
+      return true;
+    }
+  }
+
+  // </editor-fold>
+
+  // <editor-fold desc="Literal values">
+
+  // The names of the enum values of all of the attributes that are read.
+  private static final Map<String, Integer> ENUM_VALUES = new ArrayMap<>();
+
+  static {
+    // strokeLineCap, strokeLineJoin, and fillType.
+    ENUM_VALUES.put("butt", StrokeLineCap.BUTT);
+    ENUM_VALUES.put("round", StrokeLineCap.ROUND);
+    ENUM_VALUES.put("square", StrokeLineCap.SQUARE);
+    ENUM_VALUES.put("miter", StrokeLineJoin.MITER);
+    ENUM_VALUES.put("bevel", StrokeLineJoin.BEVEL);
+    ENUM_VALUES.put("nonZero", FillType.NON_ZERO);
+    ENUM_VALUES.put("evenOdd", FillType.EVEN_ODD);
+    // tintMode.
+    ENUM_VALUES.put("src_over", 3);
+    ENUM_VALUES.put("src_in", 5);
+    ENUM_VALUES.put("src_atop", 9);
+    ENUM_VALUES.put("multiply", 14);
+    ENUM_VALUES.put("screen", 15);
+    ENUM_VALUES.put("add", 16);
+    // valueType, ordering, repeatMode, and repeatCount.
+    ENUM_VALUES.put("floatType", 0);
+    ENUM_VALUES.put("intType", 1);
+    ENUM_VALUES.put("pathType", 2);
+    ENUM_VALUES.put("colorType", 3);
+    ENUM_VALUES.put("together", 0);
+    ENUM_VALUES.put("sequentially", 1);
+    ENUM_VALUES.put("restart", 1);
+    ENUM_VALUES.put("reverse", 2);
+    ENUM_VALUES.put("infinite", -1);
+  }
+
+  /** Returns the complex unit with the given suffix, or -1 if it isn't a dimension unit. */
+  private static int parseUnit(String unit) {
+    switch (unit) {
+      case "px":
+        return TypedValue.COMPLEX_UNIT_PX;
+      case "dp":
+      case "dip":
+        return TypedValue.COMPLEX_UNIT_DIP;
+      case "sp":
+        return TypedValue.COMPLEX_UNIT_SP;
+      case "pt":
+        return TypedValue.COMPLEX_UNIT_PT;
+      case "in":
+        return TypedValue.COMPLEX_UNIT_IN;
+      case "mm":
+        return TypedValue.COMPLEX_UNIT_MM;
+      default:
+        return -1;
+    }
+  }
+
+  /** Parses a color in one of the #RGB, #ARGB, #RRGGBB, or #AARRGGBB formats. */
+  @ColorInt
+  private static int parseColor(String value) {
+    String hex = value.substring(1);
+    if (hex.length() == 3 || hex.length() == 4) {
+      final StringBuilder sb = new StringBuilder(hex.length() * 2);
+      for (int i = 0; i < hex.length(); i++) {
+        sb.append(hex.charAt(i)).append(hex.charAt(i));
+      }
+      hex = sb.toString();
+    }
+    if (hex.length() != 6 && hex.length() != 8) {
+      throw new NumberFormatException("Invalid color: " + value);
+    }
+    final long color = Long.parseLong(hex, 16);
+    return (int) (hex.length() == 6 ? color | 0xFF000000L : color);
+  }
+
+  private static boolean isIntType(int type) {
+    return TypedValue.TYPE_FIRST_INT <= type && type <= TypedValue.TYPE_LAST_INT;
+  }
+
+  private static boolean isColorType(int type) {
+    return TypedValue.TYPE_FIRST_COLOR_INT <= type && type <= TypedValue.TYPE_LAST_COLOR_INT;
+  }
+
+  // </editor-fold>
+}
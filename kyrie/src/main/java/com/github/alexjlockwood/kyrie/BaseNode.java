@@ -3,7 +3,9 @@ package com.github.alexjlockwood.kyrie;
 import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.PointF;
+import android.graphics.RectF;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.annotation.Size;
 
 import java.util.List;
@@ -86,29 +88,307 @@ abstract class BaseNode extends Node {
     @NonNull private final Property<Float> translateX;
     @NonNull private final Property<Float> translateY;
 
-    private final Matrix tempMatrix = new Matrix();
-
-    @Size(value = 4)
-    private final float[] tempUnitVectors = new float[4];
+    // A constant transform inherited from ancestor groups that were folded into this layer,
+    // applied before the layer's own transform.
+    @Nullable private Matrix staticMatrix;
+
+    // The layer's local transform, and its concatenation with the parent matrix. Both are only
+    // recomputed after a transform property or one of the ancestors' matrices has changed.
+    private final Matrix localMatrix = new Matrix();
+    private boolean isLocalMatrixValid;
+    private boolean isLocalMatrixIdentity;
+    private final Matrix matrix = new Matrix();
+    private boolean isMatrixValid;
+    private float matrixScale;
+    private boolean isMatrixScaleValid;
+
+    @Nullable private Layer parent;
+    private final RectF bounds = new RectF();
+    private boolean isBoundsValid;
+    private boolean hasAnimatedProperties;
+    private boolean isContentDirty;
+
+    // The viewport scale that was used to compute the cached bounds.
+    private final PointF boundsViewportScale = new PointF();
+
+    private final Property.Listener transformListener =
+        new Property.Listener() {
+          @Override
+          public void onCurrentPlayTimeChanged(Property<?> property) {
+            invalidateLocalMatrix();
+          }
+        };
+
+    private final Property.Listener boundsListener =
+        new Property.Listener() {
+          @Override
+          public void onCurrentPlayTimeChanged(Property<?> property) {
+            invalidateBounds();
+          }
+        };
+
+    private final Property.Listener contentListener =
+        new Property.Listener() {
+          @Override
+          public void onCurrentPlayTimeChanged(Property<?> property) {
+            invalidateContent();
+          }
+        };
 
     public BaseLayer(PropertyTimeline timeline, BaseNode node) {
       this.timeline = timeline;
-      rotation = registerAnimatableProperty(node.getRotation());
-      pivotX = registerAnimatableProperty(node.getPivotX());
-      pivotY = registerAnimatableProperty(node.getPivotY());
-      scaleX = registerAnimatableProperty(node.getScaleX());
-      scaleY = registerAnimatableProperty(node.getScaleY());
-      translateX = registerAnimatableProperty(node.getTranslateX());
-      translateY = registerAnimatableProperty(node.getTranslateY());
+      rotation = registerAnimatableTransformProperty(node.getRotation());
+      pivotX = registerAnimatableTransformProperty(node.getPivotX());
+      pivotY = registerAnimatableTransformProperty(node.getPivotY());
+      scaleX = registerAnimatableTransformProperty(node.getScaleX());
+      scaleY = registerAnimatableTransformProperty(node.getScaleY());
+      translateX = registerAnimatableTransformProperty(node.getTranslateX());
+      translateY = registerAnimatableTransformProperty(node.getTranslateY());
     }
 
+    @NonNull
+    private Property<Float> registerAnimatableTransformProperty(
+        List<Animation<?, Float>> animations) {
+      final Property<Float> property = timeline.registerAnimatableProperty(animations);
+      property.addListener(transformListener);
+      hasAnimatedProperties |= !property.isConstant();
+      return property;
+    }
+
+    /**
+     * Registers a property that affects the layer's geometry. The layer's cached bounds are
+     * invalidated each time the property's value changes.
+     */
     @NonNull
     public final <V> Property<V> registerAnimatableProperty(List<Animation<?, V>> animations) {
-      return timeline.registerAnimatableProperty(animations);
+      final Property<V> property = timeline.registerAnimatableProperty(animations);
+      property.addListener(boundsListener);
+      hasAnimatedProperties |= !property.isConstant();
+      return property;
+    }
+
+    /** Registers a property that only affects how the layer is painted, and not its bounds. */
+    @NonNull
+    public final <V> Property<V> registerAnimatablePaintProperty(
+        List<Animation<?, V>> animations) {
+      final Property<V> property = timeline.registerAnimatableProperty(animations);
+      property.addListener(contentListener);
+      hasAnimatedProperties |= !property.isConstant();
+      return property;
+    }
+
+    @Override
+    public final void draw(
+        Canvas canvas, Matrix parentMatrix, PointF viewportScale, DrawContext context) {
+      if (isCullable()) {
+        final RectF bounds = context.tempBounds;
+        getBounds(parentMatrix, viewportScale, bounds, null, context);
+        if (bounds.isEmpty() || canvas.quickReject(bounds, Canvas.EdgeType.AA)) {
+          return;
+        }
+      }
+      onDraw(canvas, getMatrix(parentMatrix), viewportScale, context);
+    }
+
+    @Override
+    public final void getBounds(
+        Matrix parentMatrix,
+        PointF viewportScale,
+        RectF outBounds,
+        @Nullable RectF outDirtyBounds,
+        DrawContext context) {
+      final boolean isDirtyBoundsContributor = outDirtyBounds != null && isDirtyBoundsContributor();
+      if (!isBoundsValid || !boundsViewportScale.equals(viewportScale.x, viewportScale.y)) {
+        if (isDirtyBoundsContributor) {
+          // The region that was covered by the layer's old bounds must be redrawn.
+          outDirtyBounds.union(bounds);
+        }
+        onComputeBounds(getMatrix(parentMatrix), viewportScale, bounds, outDirtyBounds, context);
+        boundsViewportScale.set(viewportScale);
+        isBoundsValid = true;
+        if (isDirtyBoundsContributor) {
+          outDirtyBounds.union(bounds);
+        }
+      } else if (isContentDirty && isDirtyBoundsContributor) {
+        outDirtyBounds.union(bounds);
+      }
+      if (outDirtyBounds != null) {
+        isContentDirty = false;
+      }
+      outBounds.set(bounds);
+    }
+
+    /**
+     * Computes the layer's device-space bounds.
+     *
+     * @param matrix The layer's concatenated matrix, i.e. the same matrix that is passed to {@link
+     *     #onDraw(Canvas, Matrix, PointF, DrawContext)}.
+     * @param viewportScale The viewport scale.
+     * @param outBounds The rect in which to store the computed bounds.
+     * @param outDirtyBounds The rect in which to accumulate the regions that need to be redrawn,
+     *     or null if dirty regions aren't being tracked.
+     * @param context The scratch objects to use while computing the bounds.
+     */
+    abstract void onComputeBounds(
+        Matrix matrix,
+        PointF viewportScale,
+        RectF outBounds,
+        @Nullable RectF outDirtyBounds,
+        DrawContext context);
+
+    /**
+     * Returns true if the layer can be skipped when its bounds are empty or lie outside of the
+     * canvas' clip.
+     */
+    boolean isCullable() {
+      return true;
+    }
+
+    /**
+     * Returns true if the layer should add its old and new bounds to the dirty region when they
+     * change. Layers that only contain other layers should return false, since their children
+     * report their own changes.
+     */
+    boolean isDirtyBoundsContributor() {
+      return true;
+    }
+
+    @Override
+    public final void setParent(@Nullable Layer parent) {
+      this.parent = parent;
+    }
+
+    @Nullable
+    final Layer getParent() {
+      return parent;
+    }
+
+    @Override
+    public boolean isStatic() {
+      return !hasAnimatedProperties;
+    }
+
+    @Override
+    public boolean isClipping() {
+      return false;
+    }
+
+    /** Returns true if none of the layer's transform properties are animated. */
+    final boolean hasConstantTransform() {
+      return rotation.isConstant()
+          && pivotX.isConstant()
+          && pivotY.isConstant()
+          && scaleX.isConstant()
+          && scaleY.isConstant()
+          && translateX.isConstant()
+          && translateY.isConstant();
+    }
+
+    /**
+     * Computes the matrix that this layer applies to its content, including any constant
+     * transform folded into it by {@link #concatStaticMatrix(Matrix)}.
+     */
+    final void getLocalMatrix(Matrix outMatrix) {
+      outMatrix.set(getLocalMatrix());
+    }
+
+    /**
+     * Folds a constant transform into this layer, so that it is applied before the layer's own
+     * transform and any transform previously folded into it. Used to remove groups whose
+     * transforms never change from the layer tree.
+     */
+    final void concatStaticMatrix(Matrix matrix) {
+      if (matrix.isIdentity()) {
+        return;
+      }
+      if (staticMatrix == null) {
+        staticMatrix = new Matrix(matrix);
+      } else {
+        staticMatrix.postConcat(matrix);
+      }
+      invalidateLocalMatrix();
     }
 
     @Override
-    public final void draw(Canvas canvas, Matrix parentMatrix, PointF viewportScale) {
+    public void onChildInvalidated() {
+      invalidateBounds();
+    }
+
+    /** Invalidates this layer's cached bounds, as well as the bounds of all of its ancestors. */
+    void invalidateBounds() {
+      // If the bounds are already invalid, then so are the bounds of all of our ancestors.
+      if (isBoundsValid) {
+        isBoundsValid = false;
+        if (parent != null) {
+          parent.onChildInvalidated();
+        }
+      }
+    }
+
+    /**
+     * Marks the layer's content as needing to be redrawn, even though its bounds haven't changed.
+     */
+    private void invalidateContent() {
+      isContentDirty = true;
+      // Make sure the next dirty region pass visits this layer.
+      if (parent != null) {
+        parent.onChildInvalidated();
+      }
+    }
+
+    /**
+     * Returns the layer's concatenated matrix, i.e. the given parent matrix followed by the layer's
+     * own transform. The result is cached until {@link #invalidateMatrix()} is called.
+     */
+    @NonNull
+    private Matrix getMatrix(Matrix parentMatrix) {
+      if (!isMatrixValid) {
+        final Matrix localMatrix = getLocalMatrix();
+        matrix.set(parentMatrix);
+        if (!isLocalMatrixIdentity) {
+          matrix.preConcat(localMatrix);
+        }
+        isMatrixValid = true;
+      }
+      return matrix;
+    }
+
+    @NonNull
+    private Matrix getLocalMatrix() {
+      if (!isLocalMatrixValid) {
+        computeLocalMatrix(localMatrix);
+        isLocalMatrixIdentity = localMatrix.isIdentity();
+        isLocalMatrixValid = true;
+      }
+      return localMatrix;
+    }
+
+    private void invalidateLocalMatrix() {
+      isLocalMatrixValid = false;
+      // Invalidate the bounds first, so that they are also invalidated for our ancestors.
+      invalidateBounds();
+      invalidateMatrix();
+    }
+
+    @Override
+    public final void invalidateMatrix() {
+      // If the matrix is already invalid, then so are the matrices of all of our descendants.
+      if (isMatrixValid) {
+        isMatrixValid = false;
+        isMatrixScaleValid = false;
+        // The ancestors' bounds are invalidated by the layer whose matrix changed.
+        isBoundsValid = false;
+        onMatrixInvalidated();
+      }
+    }
+
+    /**
+     * Called when the layer's matrix has been invalidated, either because one of its transform
+     * properties or one of its ancestors' matrices has changed.
+     */
+    void onMatrixInvalidated() {}
+
+    private void computeLocalMatrix(Matrix outMatrix) {
       final float pivotX = this.pivotX.getAnimatedValue();
       final float pivotY = this.pivotY.getAnimatedValue();
       final float rotation = this.rotation.getAnimatedValue();
@@ -116,23 +396,39 @@ abstract class BaseNode extends Node {
       final float scaleY = this.scaleY.getAnimatedValue();
       final float translateX = this.translateX.getAnimatedValue();
       final float translateY = this.translateY.getAnimatedValue();
-      tempMatrix.set(parentMatrix);
+      if (staticMatrix != null) {
+        outMatrix.set(staticMatrix);
+      } else {
+        outMatrix.reset();
+      }
       if (translateX + pivotX != 0f || translateY + pivotY != 0f) {
-        tempMatrix.preTranslate(translateX + pivotX, translateY + pivotY);
+        outMatrix.preTranslate(translateX + pivotX, translateY + pivotY);
       }
       if (rotation != 0f) {
-        tempMatrix.preRotate(rotation, 0, 0);
+        outMatrix.preRotate(rotation, 0, 0);
       }
       if (scaleX != 1f || scaleY != 1f) {
-        tempMatrix.preScale(scaleX, scaleY);
+        outMatrix.preScale(scaleX, scaleY);
       }
       if (pivotX != 0f || pivotY != 0f) {
-        tempMatrix.preTranslate(-pivotX, -pivotY);
+        outMatrix.preTranslate(-pivotX, -pivotY);
+      }
+    }
+
+    /**
+     * Returns the scale of the layer's concatenated matrix. Must only be called from {@link
+     * #onDraw(Canvas, Matrix, PointF, DrawContext)} or {@link #onComputeBounds(Matrix, PointF,
+     * RectF, RectF, DrawContext)}.
+     */
+    final float getMatrixScale(DrawContext context) {
+      if (!isMatrixScaleValid) {
+        matrixScale = getMatrixScale(matrix, context.tempUnitVectors);
+        isMatrixScaleValid = true;
       }
-      onDraw(canvas, tempMatrix, viewportScale);
+      return matrixScale;
     }
 
-    final float getMatrixScale(Matrix matrix) {
+    private static float getMatrixScale(Matrix matrix, @Size(value = 4) float[] unitVectors) {
       // Given unit vectors A = (0, 1) and B = (1, 0).
       // After matrix mapping, we got A' and B'. Let theta = the angle b/t A' and B'.
       // Therefore, the final scale we want is min(|A'| * sin(theta), |B'| * sin(theta)),
@@ -142,7 +438,6 @@ abstract class BaseNode extends Node {
       // scale on x and y axis, and take the minimal of these two.
       // For skew case, an unit square will mapped to a parallelogram. And this function will
       // return the minimal height of the 2 bases.
-      final float[] unitVectors = tempUnitVectors;
       unitVectors[0] = 0;
       unitVectors[1] = 1;
       unitVectors[2] = 1;
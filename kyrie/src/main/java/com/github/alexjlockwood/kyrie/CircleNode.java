@@ -95,7 +95,6 @@ public final class CircleNode extends RenderNode {
     @NonNull private final Property<Float> centerY;
     @NonNull private final Property<Float> radius;
 
-    private final RectF tempRect = new RectF();
 
     public CircleLayer(PropertyTimeline timeline, CircleNode node) {
       super(timeline, node);
@@ -105,10 +104,11 @@ public final class CircleNode extends RenderNode {
     }
 
     @Override
-    public void onInitPath(Path outPath) {
+    public void onInitPath(Path outPath, DrawContext context) {
       final float cx = centerX.getAnimatedValue();
       final float cy = centerY.getAnimatedValue();
       final float r = radius.getAnimatedValue();
+      final RectF tempRect = context.tempRect;
       tempRect.set(cx - r, cy - r, cx + r, cy + r);
       outPath.addOval(tempRect, Path.Direction.CW);
     }
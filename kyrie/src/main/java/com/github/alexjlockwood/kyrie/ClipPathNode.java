@@ -4,8 +4,10 @@ import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Path;
 import android.graphics.PointF;
+import android.graphics.RectF;
 import android.graphics.Region;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.List;
 
@@ -63,10 +65,6 @@ public final class ClipPathNode extends BaseNode {
     @FillType private final int fillType;
     @ClipType private final int clipType;
 
-    private final Matrix tempMatrix = new Matrix();
-    private final Path tempPath = new Path();
-    private final Path tempRenderPath = new Path();
-
     public ClipPathLayer(PropertyTimeline timeline, ClipPathNode node) {
       super(timeline, node);
       pathData = registerAnimatableProperty(node.getPathData());
@@ -75,29 +73,66 @@ public final class ClipPathNode extends BaseNode {
     }
 
     @Override
-    public void onDraw(Canvas canvas, Matrix parentMatrix, PointF viewportScale) {
-      final float matrixScale = getMatrixScale(parentMatrix);
+    void onComputeBounds(
+        Matrix matrix,
+        PointF viewportScale,
+        RectF outBounds,
+        @Nullable RectF outDirtyBounds,
+        DrawContext context) {
+      // A clip path doesn't draw anything itself, but any change to it can only affect
+      // its siblings within the clip path's old and new bounds.
+      if (getMatrixScale(context) == 0) {
+        outBounds.setEmpty();
+        return;
+      }
+      initRenderPath(matrix, viewportScale, context).computeBounds(outBounds, true);
+    }
+
+    @Override
+    boolean isCullable() {
+      // Skipping the clip would cause its siblings to be drawn unclipped.
+      return false;
+    }
+
+    @Override
+    public boolean isClipping() {
+      return true;
+    }
+
+    @Override
+    public void onDraw(
+        Canvas canvas, Matrix parentMatrix, PointF viewportScale, DrawContext context) {
+      final float matrixScale = getMatrixScale(context);
       if (matrixScale == 0) {
         return;
       }
 
+      final Path renderPath = initRenderPath(parentMatrix, viewportScale, context);
+      if (clipType == ClipType.INTERSECT) {
+        canvas.clipPath(renderPath);
+      } else {
+        canvas.clipPath(renderPath, Region.Op.DIFFERENCE);
+      }
+    }
+
+    @NonNull
+    private Path initRenderPath(Matrix matrix, PointF viewportScale, DrawContext context) {
       final float scaleX = viewportScale.x;
       final float scaleY = viewportScale.y;
-      tempMatrix.set(parentMatrix);
+      final Matrix tempMatrix = context.tempMatrix;
+      tempMatrix.set(matrix);
       if (scaleX != 1f || scaleY != 1f) {
         tempMatrix.postScale(scaleX, scaleY);
       }
 
+      final Path tempRenderPath = context.tempRenderPath;
+      final Path tempPath = context.tempPath;
       tempRenderPath.reset();
       tempPath.reset();
       PathData.toPath(pathData.getAnimatedValue(), tempPath);
       tempRenderPath.addPath(tempPath, tempMatrix);
       tempRenderPath.setFillType(getPaintFillType(fillType));
-      if (clipType == ClipType.INTERSECT) {
-        canvas.clipPath(tempRenderPath);
-      } else {
-        canvas.clipPath(tempRenderPath, Region.Op.DIFFERENCE);
-      }
+      return tempRenderPath;
     }
 
     private static Path.FillType getPaintFillType(@FillType int fillType) {
@@ -0,0 +1,33 @@
+package com.github.alexjlockwood.kyrie;
+
+import android.support.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A keyframe set that always evaluates to the same value. Used to represent the initial values of
+ * node properties without allocating any keyframes or evaluators.
+ *
+ * @param <T> The keyframe value type.
+ */
+final class ConstantKeyframeSet<T> extends KeyframeSet<T> {
+  @NonNull private final T value;
+
+  public ConstantKeyframeSet(T value) {
+    this.value = value;
+  }
+
+  @NonNull
+  @Override
+  public T getAnimatedValue(float fraction) {
+    return value;
+  }
+
+  @NonNull
+  @Override
+  public List<Keyframe<T>> getKeyframes() {
+    // There are no keyframes with missing values to fill in.
+    return Collections.emptyList();
+  }
+}
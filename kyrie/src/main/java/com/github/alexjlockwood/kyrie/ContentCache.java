@@ -0,0 +1,250 @@
+package com.github.alexjlockwood.kyrie;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Picture;
+import android.graphics.PointF;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.Size;
+
+/**
+ * Caches the rendered content of a layer in device space, so that it can be drawn again under a
+ * different matrix without re-drawing the layer's children.
+ *
+ * <p>The content is only re-recorded once the matrix and the content have stayed the same for two
+ * consecutive frames. Until then, the content is drawn directly, so that content that changes on
+ * every frame isn't re-recorded on every frame.
+ */
+abstract class ContentCache {
+
+  /** The content that is cached. */
+  interface Content {
+    /** Computes the device-space bounds of the content. */
+    void computeContentBounds(
+        Matrix matrix, PointF viewportScale, RectF outBounds, DrawContext context);
+
+    /** Draws the content. */
+    void drawContent(Canvas canvas, Matrix matrix, PointF viewportScale, DrawContext context);
+  }
+
+  /** Creates a cache that records the content into a {@link Picture}. */
+  @NonNull
+  static ContentCache forDisplayList(Content content) {
+    return new DisplayListCache(content);
+  }
+
+  /** Creates a cache that rasterizes the content into a {@link Bitmap}. */
+  @NonNull
+  static ContentCache forBitmap(Content content) {
+    return new BitmapCache(content);
+  }
+
+  @NonNull private final Content content;
+  private boolean isRecorded;
+  private boolean isContentValid;
+  private boolean hasContentChanged;
+
+  // The device matrix (i.e. the layer's matrix post-scaled by the viewport
+  // scale) and the device-space bounds of the recorded content.
+  private final Matrix recordedMatrix = new Matrix();
+  private final Rect recordedBounds = new Rect();
+
+  private final Matrix deviceMatrix = new Matrix();
+  private final Matrix lastDeviceMatrix = new Matrix();
+  private final RectF tempBounds = new RectF();
+
+  ContentCache(Content content) {
+    this.content = content;
+  }
+
+  /** Invalidates the cached content. Called when any part of the content changes. */
+  final void invalidate() {
+    isContentValid = false;
+    hasContentChanged = true;
+  }
+
+  final void draw(Canvas canvas, Matrix matrix, PointF viewportScale, DrawContext context) {
+    deviceMatrix.set(matrix);
+    deviceMatrix.postScale(viewportScale.x, viewportScale.y);
+    final boolean isStable = !hasContentChanged && deviceMatrix.equals(lastDeviceMatrix);
+    lastDeviceMatrix.set(deviceMatrix);
+    hasContentChanged = false;
+
+    if (!isRecorded || !isContentValid || !canReplay(recordedMatrix, deviceMatrix)) {
+      if (isRecorded && !isStable) {
+        content.drawContent(canvas, matrix, viewportScale, context);
+        return;
+      }
+      content.computeContentBounds(matrix, viewportScale, tempBounds, context);
+      tempBounds.roundOut(recordedBounds);
+      // Outset the bounds by a pixel to account for anti-aliasing.
+      recordedBounds.inset(-1, -1);
+      recordedMatrix.set(deviceMatrix);
+      isContentValid = true;
+      isRecorded =
+          recordedBounds.isEmpty()
+              || record(content, recordedBounds, matrix, viewportScale, context);
+      if (!isRecorded) {
+        content.drawContent(canvas, matrix, viewportScale, context);
+        return;
+      }
+    }
+    if (!recordedBounds.isEmpty()) {
+      replay(canvas, recordedBounds, recordedMatrix, deviceMatrix);
+    }
+  }
+
+  /**
+   * Returns true if the recorded content can be replayed under the given device matrix.
+   *
+   * @param recordedMatrix The device matrix that the content was recorded with.
+   * @param deviceMatrix The current device matrix.
+   */
+  abstract boolean canReplay(Matrix recordedMatrix, Matrix deviceMatrix);
+
+  /**
+   * Records the content, translated such that the top left corner of its bounds is at the origin.
+   *
+   * @return false if the content couldn't be recorded, in which case it is drawn directly.
+   */
+  abstract boolean record(
+      Content content, Rect bounds, Matrix matrix, PointF viewportScale, DrawContext context);
+
+  /** Draws the recorded content, transformed from the recorded to the current device matrix. */
+  abstract void replay(Canvas canvas, Rect bounds, Matrix recordedMatrix, Matrix deviceMatrix);
+
+  /**
+   * A cache backed by a {@link Picture}. The recording is in device space, so it can only be
+   * replayed if the device matrix differs from the recorded one by a translation.
+   */
+  private static final class DisplayListCache extends ContentCache {
+    @Nullable private Picture displayList;
+
+    @Size(value = 9)
+    private final float[] recordedMatrixValues = new float[9];
+
+    @Size(value = 9)
+    private final float[] matrixValues = new float[9];
+
+    DisplayListCache(Content content) {
+      super(content);
+    }
+
+    @Override
+    boolean canReplay(Matrix recordedMatrix, Matrix deviceMatrix) {
+      recordedMatrix.getValues(recordedMatrixValues);
+      deviceMatrix.getValues(matrixValues);
+      for (int i = 0; i < matrixValues.length; i++) {
+        if (i != Matrix.MTRANS_X
+            && i != Matrix.MTRANS_Y
+            && matrixValues[i] != recordedMatrixValues[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    boolean record(
+        Content content, Rect bounds, Matrix matrix, PointF viewportScale, DrawContext context) {
+      if (displayList == null) {
+        displayList = new Picture();
+      }
+      final Canvas canvas = displayList.beginRecording(bounds.width(), bounds.height());
+      canvas.translate(-bounds.left, -bounds.top);
+      content.drawContent(canvas, matrix, viewportScale, context);
+      displayList.endRecording();
+      return true;
+    }
+
+    @Override
+    void replay(Canvas canvas, Rect bounds, Matrix recordedMatrix, Matrix deviceMatrix) {
+      recordedMatrix.getValues(recordedMatrixValues);
+      deviceMatrix.getValues(matrixValues);
+      final float dx = matrixValues[Matrix.MTRANS_X] - recordedMatrixValues[Matrix.MTRANS_X];
+      final float dy = matrixValues[Matrix.MTRANS_Y] - recordedMatrixValues[Matrix.MTRANS_Y];
+      final int saveCount = canvas.save();
+      canvas.translate(bounds.left + dx, bounds.top + dy);
+      canvas.drawPicture(displayList);
+      canvas.restoreToCount(saveCount);
+    }
+  }
+
+  /**
+   * A cache backed by a {@link Bitmap}. The bitmap can be replayed under any device matrix that
+   * doesn't scale it up, since that would make it look blurry.
+   */
+  private static final class BitmapCache extends ContentCache {
+    // Cap the bitmap size, matching the size of the drawable's offscreen bitmap.
+    private static final int MAX_CACHED_BITMAP_SIZE = 2048;
+    private static final float MAX_REPLAY_SCALE = 1.001f;
+
+    @Nullable private Bitmap bitmap;
+    @Nullable private Canvas bitmapCanvas;
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG | Paint.ANTI_ALIAS_FLAG);
+    private final Matrix inverseRecordedMatrix = new Matrix();
+    private final Matrix replayMatrix = new Matrix();
+
+    @Size(value = 4)
+    private final float[] tempUnitVectors = new float[4];
+
+    BitmapCache(Content content) {
+      super(content);
+    }
+
+    @Override
+    boolean canReplay(Matrix recordedMatrix, Matrix deviceMatrix) {
+      if (!recordedMatrix.invert(inverseRecordedMatrix)) {
+        return false;
+      }
+      replayMatrix.set(inverseRecordedMatrix);
+      replayMatrix.postConcat(deviceMatrix);
+      final float[] unitVectors = tempUnitVectors;
+      unitVectors[0] = 1;
+      unitVectors[1] = 0;
+      unitVectors[2] = 0;
+      unitVectors[3] = 1;
+      replayMatrix.mapVectors(unitVectors);
+      final float scaleX = (float) Math.hypot(unitVectors[0], unitVectors[1]);
+      final float scaleY = (float) Math.hypot(unitVectors[2], unitVectors[3]);
+      return Math.max(scaleX, scaleY) <= MAX_REPLAY_SCALE;
+    }
+
+    @Override
+    boolean record(
+        Content content, Rect bounds, Matrix matrix, PointF viewportScale, DrawContext context) {
+      final int width = bounds.width();
+      final int height = bounds.height();
+      if (width > MAX_CACHED_BITMAP_SIZE || height > MAX_CACHED_BITMAP_SIZE) {
+        return false;
+      }
+      if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+        bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        bitmapCanvas = new Canvas(bitmap);
+      } else {
+        bitmap.eraseColor(Color.TRANSPARENT);
+      }
+      final int saveCount = bitmapCanvas.save();
+      bitmapCanvas.translate(-bounds.left, -bounds.top);
+      content.drawContent(bitmapCanvas, matrix, viewportScale, context);
+      bitmapCanvas.restoreToCount(saveCount);
+      return true;
+    }
+
+    @Override
+    void replay(Canvas canvas, Rect bounds, Matrix recordedMatrix, Matrix deviceMatrix) {
+      // canReplay() has already computed the matrix that maps the recorded
+      // device space to the current device space.
+      final int saveCount = canvas.save();
+      canvas.concat(replayMatrix);
+      canvas.drawBitmap(bitmap, bounds.left, bounds.top, bitmapPaint);
+      canvas.restoreToCount(saveCount);
+    }
+  }
+}
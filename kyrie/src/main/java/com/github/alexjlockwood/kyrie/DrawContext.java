@@ -0,0 +1,75 @@
+package com.github.alexjlockwood.kyrie;
+
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PathMeasure;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.Size;
+
+/**
+ * Scratch objects shared by all of the layers of a {@link KyrieDrawable}, passed down the layer
+ * tree each time it is drawn or its bounds are computed. Layers only hold on to their persistent
+ * cached state, and use these objects for everything that is only needed while a single layer is
+ * being drawn.
+ *
+ * <p>A layer must not expect the contents of any of these objects to be preserved across calls
+ * into other layers. Layers are never drawn on multiple threads at once, so each drawable only
+ * needs a single instance.
+ */
+final class DrawContext {
+  final Matrix tempMatrix = new Matrix();
+  final Path tempPath = new Path();
+  final Path tempRenderPath = new Path();
+  final RectF tempBounds = new RectF();
+  final RectF tempRect = new RectF();
+
+  @Size(value = 4)
+  final float[] tempUnitVectors = new float[4];
+
+  @Nullable private Paint fillPaint;
+  @Nullable private Paint strokePaint;
+  @Nullable private PathMeasure pathMeasure;
+  @Nullable private float[] strokeDashArray;
+
+  /** Returns a paint for filling paths. Only its color is expected to be changed. */
+  @NonNull
+  Paint getFillPaint() {
+    if (fillPaint == null) {
+      fillPaint = new Paint();
+      fillPaint.setStyle(Paint.Style.FILL);
+      fillPaint.setAntiAlias(true);
+    }
+    return fillPaint;
+  }
+
+  /** Returns a paint for stroking paths. All stroke attributes must be set before each use. */
+  @NonNull
+  Paint getStrokePaint() {
+    if (strokePaint == null) {
+      strokePaint = new Paint();
+      strokePaint.setStyle(Paint.Style.STROKE);
+      strokePaint.setAntiAlias(true);
+    }
+    return strokePaint;
+  }
+
+  @NonNull
+  PathMeasure getPathMeasure() {
+    if (pathMeasure == null) {
+      pathMeasure = new PathMeasure();
+    }
+    return pathMeasure;
+  }
+
+  /** Returns an array with the given length for computing stroke dash intervals. */
+  @NonNull
+  float[] getStrokeDashArray(int length) {
+    if (strokeDashArray == null || strokeDashArray.length != length) {
+      strokeDashArray = new float[length];
+    }
+    return strokeDashArray;
+  }
+}
@@ -104,7 +104,6 @@ public final class EllipseNode extends RenderNode {
     @NonNull private final Property<Float> radiusX;
     @NonNull private final Property<Float> radiusY;
 
-    private final RectF tempRect = new RectF();
 
     public EllipseLayer(PropertyTimeline timeline, EllipseNode node) {
       super(timeline, node);
@@ -115,11 +114,12 @@ public final class EllipseNode extends RenderNode {
     }
 
     @Override
-    public void onInitPath(Path outPath) {
+    public void onInitPath(Path outPath, DrawContext context) {
       final float cx = centerX.getAnimatedValue();
       final float cy = centerY.getAnimatedValue();
       final float rx = radiusX.getAnimatedValue();
       final float ry = radiusY.getAnimatedValue();
+      final RectF tempRect = context.tempRect;
       tempRect.set(cx - rx, cy - ry, cx + rx, cy + ry);
       outPath.addOval(tempRect, Path.Direction.CW);
     }
@@ -0,0 +1,180 @@
+package com.github.alexjlockwood.kyrie;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.Px;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Evaluates a {@link KyrieDrawable}'s timeline and rasterizes its layers on a worker thread, so
+ * that the main thread only has to draw the bitmap of the most recently completed {@link Frame}.
+ * While the main thread draws one frame, the worker thread can already be rasterizing the next one.
+ *
+ * <p>Frames are rasterized into a small pool of reusable buffers. The worker thread never draws
+ * into the latest frame or the frame that the main thread last drew, so a completed frame is never
+ * modified while it can still be drawn.
+ *
+ * <p>Frames are rendered while holding the drawable's {@link KyrieDrawable#frameLock}. The worker
+ * thread is shared by all drawables and is never stopped.
+ */
+final class FrameRenderer {
+  // One frame that was last drawn, one that is waiting to be drawn, and one to rasterize into.
+  private static final int FRAME_BUFFER_COUNT = 3;
+
+  @Nullable private static Handler workerHandler;
+
+  @NonNull
+  private static synchronized Handler getWorkerHandler() {
+    if (workerHandler == null) {
+      final HandlerThread thread =
+          new HandlerThread("KyrieFrameRenderer", Process.THREAD_PRIORITY_DISPLAY);
+      thread.start();
+      workerHandler = new Handler(thread.getLooper());
+    }
+    return workerHandler;
+  }
+
+  /** A buffer containing a drawable's rasterized layers at a single play time. */
+  static final class Frame {
+    @Nullable private Bitmap bitmap;
+    @Nullable private Canvas canvas;
+    private float animatedAlpha;
+
+    /** Returns a canvas that draws into a cleared bitmap with the given size. */
+    @NonNull
+    Canvas beginFrame(@Px int width, @Px int height) {
+      if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+        bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        canvas = new Canvas(bitmap);
+      } else {
+        bitmap.eraseColor(Color.TRANSPARENT);
+      }
+      return canvas;
+    }
+
+    void setAnimatedAlpha(float animatedAlpha) {
+      this.animatedAlpha = animatedAlpha;
+    }
+
+    @NonNull
+    Bitmap getBitmap() {
+      return bitmap;
+    }
+
+    float getAnimatedAlpha() {
+      return animatedAlpha;
+    }
+  }
+
+  @NonNull private final KyrieDrawable drawable;
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private final Frame[] frames = new Frame[FRAME_BUFFER_COUNT];
+  private final AtomicReference<Frame> latestFrame = new AtomicReference<>();
+  private final AtomicReference<Frame> drawnFrame = new AtomicReference<>();
+  private final AtomicBoolean isFrameRequested = new AtomicBoolean();
+
+  // The play time and size of the next frame to rasterize. A request made while
+  // the worker is busy simply overwrites the previous one.
+  private volatile long requestedPlayTime;
+  private volatile int requestedWidth;
+  private volatile int requestedHeight;
+
+  private final Runnable renderRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          isFrameRequested.set(false);
+          render();
+          mainHandler.post(invalidateRunnable);
+        }
+      };
+
+  private final Runnable invalidateRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          drawable.invalidateSelf();
+        }
+      };
+
+  FrameRenderer(@NonNull KyrieDrawable drawable) {
+    this.drawable = drawable;
+    for (int i = 0; i < frames.length; i++) {
+      frames[i] = new Frame();
+    }
+  }
+
+  /** Requests that a frame be rasterized at the given play time. */
+  void requestFrame(long playTime) {
+    requestedPlayTime = playTime;
+    scheduleFrame();
+  }
+
+  private void scheduleFrame() {
+    // Frames can't be rasterized until the drawable has been drawn at least once.
+    if (requestedWidth > 0 && isFrameRequested.compareAndSet(false, true)) {
+      getWorkerHandler().post(renderRunnable);
+    }
+  }
+
+  /**
+   * Returns the most recently completed frame and marks it as drawn, so that it isn't reused until
+   * another frame is drawn. The frame is rasterized immediately if no frame has been completed yet.
+   * If the latest frame has a different size than the one given, a new frame is requested and the
+   * latest frame should be scaled in the meantime. Must be called on the main thread.
+   */
+  @NonNull
+  Frame acquireFrame(@Px int width, @Px int height) {
+    final boolean isSizeChanged = width != requestedWidth || height != requestedHeight;
+    requestedWidth = width;
+    requestedHeight = height;
+    Frame frame;
+    do {
+      frame = latestFrame.get();
+      if (frame == null) {
+        frame = render();
+      }
+      drawnFrame.set(frame);
+      // The worker may have published a new frame and picked this one as its
+      // next buffer before it was marked as drawn, in which case try again.
+    } while (frame != latestFrame.get());
+    if (isSizeChanged) {
+      scheduleFrame();
+    }
+    return frame;
+  }
+
+  /** Rasterizes and publishes a frame for the latest request. */
+  @NonNull
+  private Frame render() {
+    synchronized (drawable.frameLock) {
+      // Read and publish the request while holding the lock, so that frames
+      // rasterized on different threads are always published in order.
+      final Frame frame = obtainBackFrame();
+      drawable.renderFrame(frame, requestedPlayTime, requestedWidth, requestedHeight);
+      latestFrame.set(frame);
+      return frame;
+    }
+  }
+
+  @NonNull
+  private Frame obtainBackFrame() {
+    final Frame latest = latestFrame.get();
+    final Frame drawn = drawnFrame.get();
+    for (int i = 0; i < frames.length; i++) {
+      if (frames[i] != latest && frames[i] != drawn) {
+        return frames[i];
+      }
+    }
+    throw new IllegalStateException("No frame buffer available");
+  }
+}
@@ -3,7 +3,9 @@ package com.github.alexjlockwood.kyrie;
 import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.PointF;
+import android.graphics.RectF;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +13,7 @@ import java.util.List;
 /** A {@link Node} that holds a group of children {@link Node}s. */
 public final class GroupNode extends BaseNode {
   @NonNull private final List<Node> children;
+  private final boolean isCacheAsBitmap;
 
   private GroupNode(
       List<Animation<?, Float>> rotation,
@@ -20,9 +23,11 @@ public final class GroupNode extends BaseNode {
       List<Animation<?, Float>> scaleY,
       List<Animation<?, Float>> translateX,
       List<Animation<?, Float>> translateY,
-      List<Node> children) {
+      List<Node> children,
+      boolean isCacheAsBitmap) {
     super(rotation, pivotX, pivotY, scaleX, scaleY, translateX, translateY);
     this.children = children;
+    this.isCacheAsBitmap = isCacheAsBitmap;
   }
 
   @NonNull
@@ -30,6 +35,10 @@ public final class GroupNode extends BaseNode {
     return children;
   }
 
+  boolean isCacheAsBitmap() {
+    return isCacheAsBitmap;
+  }
+
   // <editor-fold desc="Layer">
 
   @NonNull
@@ -38,25 +47,166 @@ public final class GroupNode extends BaseNode {
     return new GroupLayer(timeline, this);
   }
 
-  private static class GroupLayer extends BaseLayer {
+  private static class GroupLayer extends BaseLayer implements ContentCache.Content {
     @NonNull private final List<Layer> children;
+    private final boolean isStatic;
+    private final boolean isCacheAsBitmap;
+    private final boolean hasClippingChild;
+
+    // A cache of the children, created lazily if the group is cached as a bitmap or
+    // is the topmost group of a static subtree.
+    @Nullable private ContentCache contentCache;
 
     public GroupLayer(PropertyTimeline timeline, GroupNode node) {
       super(timeline, node);
       final List<Node> childrenNodes = node.getChildren();
-      children = new ArrayList<>(childrenNodes.size());
+      final List<Layer> childrenLayers = new ArrayList<>(childrenNodes.size());
+      boolean isStatic = super.isStatic();
       for (int i = 0, size = childrenNodes.size(); i < size; i++) {
-        children.add(childrenNodes.get(i).toLayer(timeline));
+        final Layer layer = childrenNodes.get(i).toLayer(timeline);
+        childrenLayers.add(layer);
+        isStatic &= layer.isStatic();
+      }
+      this.isStatic = isStatic;
+      this.isCacheAsBitmap = node.isCacheAsBitmap();
+
+      // Splice the children of redundant child groups into this group. Child groups
+      // have already collapsed their own subtrees, so a single pass is enough.
+      children = new ArrayList<>(childrenLayers.size());
+      final Matrix groupMatrix = new Matrix();
+      for (int i = 0, size = childrenLayers.size(); i < size; i++) {
+        final Layer layer = childrenLayers.get(i);
+        if (layer instanceof GroupLayer && isCollapsible((GroupLayer) layer)) {
+          final GroupLayer group = (GroupLayer) layer;
+          group.getLocalMatrix(groupMatrix);
+          for (int j = 0, groupSize = group.children.size(); j < groupSize; j++) {
+            final Layer child = group.children.get(j);
+            ((BaseLayer) child).concatStaticMatrix(groupMatrix);
+            child.setParent(this);
+            children.add(child);
+          }
+        } else {
+          layer.setParent(this);
+          children.add(layer);
+        }
+      }
+
+      boolean hasClippingChild = false;
+      for (int i = 0, size = children.size(); i < size; i++) {
+        hasClippingChild |= children.get(i).isClipping();
+      }
+      this.hasClippingChild = hasClippingChild;
+    }
+
+    /**
+     * Returns true if the given child group can be removed, with its children drawn directly by
+     * this group. This is the case if the child group's transform never changes (so it can be
+     * folded into its children's matrices), none of its children clip (so the clip doesn't leak
+     * into this group's later children), and it doesn't cache its content.
+     */
+    private boolean isCollapsible(GroupLayer group) {
+      if (group.children.isEmpty()) {
+        return true;
+      }
+      if (!group.hasConstantTransform() || group.isCacheAsBitmap) {
+        return false;
+      }
+      if (group.isStatic && !isStatic) {
+        // The child group is the topmost group of a static subtree and records it into
+        // a display list.
+        return false;
       }
+      for (int i = 0, size = group.children.size(); i < size; i++) {
+        if (group.children.get(i).isClipping()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public boolean isStatic() {
+      return isStatic;
+    }
+
+    @Override
+    void onComputeBounds(
+        Matrix matrix,
+        PointF viewportScale,
+        RectF outBounds,
+        @Nullable RectF outDirtyBounds,
+        DrawContext context) {
+      // Each child only writes to the scratch bounds after it has computed its own bounds.
+      final RectF childBounds = context.tempBounds;
+      outBounds.setEmpty();
+      for (int i = 0, size = children.size(); i < size; i++) {
+        children.get(i).getBounds(matrix, viewportScale, childBounds, outDirtyBounds, context);
+        outBounds.union(childBounds);
+      }
+    }
+
+    @Override
+    boolean isDirtyBoundsContributor() {
+      return false;
     }
 
     @Override
-    public void onDraw(Canvas canvas, Matrix parentMatrix, PointF viewportScale) {
-      canvas.save();
+    void onMatrixInvalidated() {
       for (int i = 0, size = children.size(); i < size; i++) {
-        children.get(i).draw(canvas, parentMatrix, viewportScale);
+        children.get(i).invalidateMatrix();
+      }
+    }
+
+    @Override
+    public void onChildInvalidated() {
+      if (contentCache != null) {
+        contentCache.invalidate();
+      }
+      super.onChildInvalidated();
+    }
+
+    @Override
+    public void onDraw(
+        Canvas canvas, Matrix parentMatrix, PointF viewportScale, DrawContext context) {
+      final ContentCache contentCache = getContentCache();
+      if (contentCache != null) {
+        contentCache.draw(canvas, parentMatrix, viewportScale, context);
+      } else {
+        drawContent(canvas, parentMatrix, viewportScale, context);
+      }
+    }
+
+    @Nullable
+    private ContentCache getContentCache() {
+      if (contentCache == null) {
+        final Layer parent = getParent();
+        if (isCacheAsBitmap) {
+          contentCache = ContentCache.forBitmap(this);
+        } else if (isStatic && (parent == null || !parent.isStatic())) {
+          contentCache = ContentCache.forDisplayList(this);
+        }
+      }
+      return contentCache;
+    }
+
+    @Override
+    public void computeContentBounds(
+        Matrix matrix, PointF viewportScale, RectF outBounds, DrawContext context) {
+      onComputeBounds(matrix, viewportScale, outBounds, null, context);
+    }
+
+    @Override
+    public void drawContent(
+        Canvas canvas, Matrix matrix, PointF viewportScale, DrawContext context) {
+      // Layers never change the canvas matrix, so the canvas only needs to be
+      // saved if one of the children changes its clip.
+      final int saveCount = hasClippingChild ? canvas.save() : -1;
+      for (int i = 0, size = children.size(); i < size; i++) {
+        children.get(i).draw(canvas, matrix, viewportScale, context);
+      }
+      if (saveCount != -1) {
+        canvas.restoreToCount(saveCount);
       }
-      canvas.restore();
     }
   }
 
@@ -71,6 +221,7 @@ public final class GroupNode extends BaseNode {
   /** Builder class used to create {@link GroupNode}s. */
   public static final class Builder extends BaseNode.Builder<Builder> {
     private final List<Node> children = new ArrayList<>();
+    private boolean isCacheAsBitmap;
 
     private Builder() {}
 
@@ -85,6 +236,23 @@ public final class GroupNode extends BaseNode {
       return child(builder.build());
     }
 
+    // Cache as bitmap.
+
+    /**
+     * Hints that the group's children should be rasterized into a bitmap that is reused as long
+     * as none of them change, even if the group itself is moved, rotated, or scaled down. This is
+     * useful for complex subtrees that are only animated by the transforms of this group or its
+     * ancestors. The bitmap is re-rasterized whenever a child changes or the group is scaled up, so
+     * this should not be used for groups whose children are animated on every frame.
+     *
+     * @param cacheAsBitmap True if the group's children should be cached as a bitmap.
+     * @return This {@link Builder} object (to allow for chaining of calls to setter methods).
+     */
+    public Builder cacheAsBitmap(boolean cacheAsBitmap) {
+      this.isCacheAsBitmap = cacheAsBitmap;
+      return this;
+    }
+
     @NonNull
     @Override
     Builder self() {
@@ -94,7 +262,15 @@ public final class GroupNode extends BaseNode {
     @NonNull
     public GroupNode build() {
       return new GroupNode(
-          rotation, pivotX, pivotY, scaleX, scaleY, translateX, translateY, children);
+          rotation,
+          pivotX,
+          pivotY,
+          scaleX,
+          scaleY,
+          translateX,
+          translateY,
+          children,
+          isCacheAsBitmap);
     }
   }
 
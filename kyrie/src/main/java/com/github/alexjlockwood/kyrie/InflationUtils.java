@@ -6,7 +6,6 @@ import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.Resources;
 import android.content.res.Resources.NotFoundException;
-import android.content.res.TypedArray;
 import android.content.res.XmlResourceParser;
 import android.graphics.Color;
 import android.graphics.Path;
@@ -43,12 +42,24 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 final class InflationUtils {
 
@@ -61,21 +72,102 @@ final class InflationUtils {
   private static final String TAG_PATH = "path";
   private static final String TAG_CLIP_PATH = "clip-path";
 
+  // Uncompiled AVDs can inline their vector and animators in <aapt:attr> elements,
+  // which the resource compiler would otherwise extract into separate resources.
+  private static final String TAG_AAPT_ATTR = "attr";
+  private static final String INLINE_DRAWABLE = "android:drawable";
+  private static final String INLINE_ANIMATION = "android:animation";
+
   public static void inflate(KyrieDrawable.Builder builder, Context context, @DrawableRes int resId)
       throws XmlPullParserException, IOException {
-    inflate(builder, context, resId, null);
+    applyAnimations(inflate(builder, context, resId, new ArrayMap<String, List<Object>>()));
+  }
+
+  /**
+   * Inflates a drawable resource's static vector tree, without waiting for the animated vector's
+   * target animators, which keep loading on worker threads. Returns the animations that must be
+   * applied to the builder's nodes once they have loaded, or null if there are none.
+   */
+  @Nullable
+  public static PendingAnimations inflateProgressively(
+      KyrieDrawable.Builder builder, Context context, @DrawableRes int resId)
+      throws XmlPullParserException, IOException {
+    return inflate(builder, context, resId, new ArrayMap<String, List<Object>>());
+  }
+
+  /**
+   * Inflates an uncompiled vector or animated vector drawable XML document from a stream. The
+   * document's attribute values are parsed directly, and any resources it references are looked up
+   * by name, so it can be inflated on any thread.
+   */
+  public static void inflate(KyrieDrawable.Builder builder, Context context, InputStream in)
+      throws XmlPullParserException, IOException {
+    final XmlPullParser parser = newDocumentParser();
+    parser.setInput(in, null);
+    applyAnimations(
+        inflate(
+            builder,
+            context,
+            parser,
+            AttributeReader.forDocument(context, parser),
+            new ArrayMap<String, List<Object>>()));
+  }
+
+  /** @see #inflate(KyrieDrawable.Builder, Context, InputStream) */
+  public static void inflate(KyrieDrawable.Builder builder, Context context, Reader in)
+      throws XmlPullParserException, IOException {
+    final XmlPullParser parser = newDocumentParser();
+    parser.setInput(in);
+    applyAnimations(
+        inflate(
+            builder,
+            context,
+            parser,
+            AttributeReader.forDocument(context, parser),
+            new ArrayMap<String, List<Object>>()));
+  }
+
+  private static void applyAnimations(@Nullable PendingAnimations animations)
+      throws InterruptedIOException {
+    if (animations != null) {
+      animations.apply();
+    }
+  }
+
+  @NonNull
+  private static XmlPullParser newDocumentParser() throws XmlPullParserException {
+    final XmlPullParser parser = Xml.newPullParser();
+    parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+    return parser;
   }
 
-  private static void inflate(
+  /** Inflates a compiled drawable resource, adding its named nodes to the given map. */
+  @Nullable
+  private static PendingAnimations inflate(
       KyrieDrawable.Builder builder,
       Context context,
       @DrawableRes int resId,
-      @Nullable Map<String, Map<String, Animation[]>> targetMap)
+      Map<String, List<Object>> nodes)
       throws XmlPullParserException, IOException {
     final Resources res = context.getResources();
     @SuppressLint("ResourceType")
-    final XmlPullParser parser = res.getXml(resId);
-    final AttributeSet attrs = Xml.asAttributeSet(parser);
+    final XmlResourceParser parser = res.getXml(resId);
+    try {
+      return inflate(
+          builder, context, parser, AttributeReader.forResource(context, parser), nodes);
+    } finally {
+      parser.close();
+    }
+  }
+
+  @Nullable
+  private static PendingAnimations inflate(
+      KyrieDrawable.Builder builder,
+      Context context,
+      XmlPullParser parser,
+      AttributeReader reader,
+      Map<String, List<Object>> nodes)
+      throws XmlPullParserException, IOException {
     int type;
     //noinspection StatementWithEmptyBody
     while ((type = parser.next()) != XmlPullParser.START_TAG
@@ -87,95 +179,270 @@ final class InflationUtils {
     }
     final String tagName = parser.getName();
     if (TAG_ANIMATED_VECTOR.equals(tagName)) {
-      inflateAnimatedVector(builder, context, parser, attrs);
+      return inflateAnimatedVector(builder, context, parser, reader, nodes);
     } else if (TAG_VECTOR.equals(tagName)) {
-      inflateVector(builder, context, parser, attrs, targetMap);
+      inflateVector(builder, parser, reader, nodes);
     }
+    return null;
   }
 
-  private static void inflateAnimatedVector(
-      KyrieDrawable.Builder builder, Context context, XmlPullParser parser, AttributeSet attrs)
+  @Nullable
+  private static PendingAnimations inflateAnimatedVector(
+      KyrieDrawable.Builder builder,
+      Context context,
+      XmlPullParser parser,
+      AttributeReader reader,
+      Map<String, List<Object>> nodes)
       throws XmlPullParserException, IOException {
-    int eventType = parser.getEventType();
-    final int innerDepth = parser.getDepth() + 1;
-
-    int drawableResId = 0;
-    final Map<String, Map<String, List<Animation<?, ?>>>> targetMap = new ArrayMap<>();
+    final AttributeReader.Attributes a = reader.obtainAttributes(Styleable.ANIMATED_VECTOR);
+    final int drawableResId = a.getResourceId("drawable", Styleable.AnimatedVector.DRAWABLE, 0);
+    a.recycle();
 
-    // Parse everything until the end of the root element.
-    while (eventType != XmlPullParser.END_DOCUMENT
-        && (innerDepth <= parser.getDepth() || eventType != XmlPullParser.END_TAG)) {
-      if (eventType == XmlPullParser.START_TAG) {
-        final String tagName = parser.getName();
-        if (TAG_ANIMATED_VECTOR.equals(tagName)) {
-          final TypedArray a =
-              TypedArrayUtils.obtainAttributes(context, attrs, Styleable.ANIMATED_VECTOR);
-          drawableResId = a.getResourceId(Styleable.AnimatedVector.DRAWABLE, 0);
-          a.recycle();
-        } else if (TAG_TARGET.equals(tagName)) {
-          final TypedArray a = context.getResources().obtainAttributes(attrs, Styleable.TARGET);
-          final String targetName = a.getString(Styleable.Target.NAME);
-          final int animatorResId = a.getResourceId(Styleable.Target.ANIMATION, 0);
-          if (animatorResId != 0) {
-            final Map<String, List<Animation<?, ?>>> animationMap =
-                loadAnimationMap(context, animatorResId);
-            if (targetMap.containsKey(targetName)) {
-              final Map<String, List<Animation<?, ?>>> existingAnimationMap =
-                  targetMap.get(targetName);
-              for (Map.Entry<String, List<Animation<?, ?>>> entry : animationMap.entrySet()) {
-                final String key = entry.getKey();
-                final List<Animation<?, ?>> value = entry.getValue();
-                if (existingAnimationMap.containsKey(key)) {
-                  existingAnimationMap.get(key).addAll(value);
-                } else {
-                  existingAnimationMap.put(key, value);
-                }
-              }
-            } else {
-              targetMap.put(targetName, animationMap);
-            }
-          }
-          a.recycle();
-        }
+    // The targets' animator resources are loaded on worker threads while the rest of
+    // the document and the vector are inflated, in the order that they are listed in.
+    final List<PendingTarget> targets = new ArrayList<>();
+    final int outerDepth = parser.getDepth();
+    int type;
+    while ((type = parser.next()) != XmlPullParser.END_DOCUMENT
+        && (type != XmlPullParser.END_TAG || parser.getDepth() > outerDepth)) {
+      if (type != XmlPullParser.START_TAG) {
+        continue;
+      }
+      if (TAG_TARGET.equals(parser.getName())) {
+        inflateTarget(context, parser, reader, targets);
+      } else if (isInlineResource(parser, INLINE_DRAWABLE)) {
+        inflateInlineVector(builder, parser, reader, nodes);
       }
-      eventType = parser.next();
     }
-
     if (drawableResId != 0) {
-      final Map<String, Map<String, Animation[]>> arrayTargetMap = new ArrayMap<>();
+      applyAnimations(inflate(builder, context, drawableResId, nodes));
+    }
+    return targets.isEmpty() ? null : new PendingAnimations(targets, nodes);
+  }
+
+  /** The animations of an animated vector's targets, which may still be loading. */
+  static final class PendingAnimations {
+    @NonNull private final List<PendingTarget> targets;
+    @NonNull private final Map<String, List<Object>> nodes;
+
+    PendingAnimations(List<PendingTarget> targets, Map<String, List<Object>> nodes) {
+      this.targets = targets;
+      this.nodes = nodes;
+    }
+
+    /**
+     * Applies the animations to the target nodes' builders, waiting for them to load if necessary.
+     * The animations are added to the animation lists that the builders share with the nodes they
+     * have built, so any layers that were created from those nodes must be recreated.
+     */
+    void apply() throws InterruptedIOException {
+      // Merge the animations in document order, so that the result doesn't
+      // depend on the order in which the animators finished loading.
+      final Map<String, Map<String, List<Animation<?, ?>>>> targetMap = new ArrayMap<>();
+      for (int i = 0, size = targets.size(); i < size; i++) {
+        final PendingTarget target = targets.get(i);
+        addAnimations(targetMap, target.name, target.getAnimationMap());
+      }
+
+      // An inline vector usually precedes the targets, so the animations
+      // can only be applied once the whole document has been read.
       for (Map.Entry<String, Map<String, List<Animation<?, ?>>>> entry : targetMap.entrySet()) {
+        final List<Object> targetNodes = nodes.get(entry.getKey());
+        if (targetNodes == null) {
+          continue;
+        }
         final Map<String, List<Animation<?, ?>>> value = entry.getValue();
-        final Map<String, Animation[]> arrayValue = new ArrayMap<>();
+        final Map<String, Animation[]> animationMap = new ArrayMap<>();
         for (Map.Entry<String, List<Animation<?, ?>>> e : value.entrySet()) {
           final List<Animation<?, ?>> v = e.getValue();
           final Animation[] arrayV = new Animation[v.size()];
           for (int i = 0, size = arrayV.length; i < size; i++) {
             arrayV[i] = v.get(i);
           }
-          arrayValue.put(e.getKey(), arrayV);
+          animationMap.put(e.getKey(), arrayV);
+        }
+        for (int i = 0, size = targetNodes.size(); i < size; i++) {
+          animateNode(targetNodes.get(i), animationMap);
         }
-        arrayTargetMap.put(entry.getKey(), arrayValue);
       }
-      inflate(builder, context, drawableResId, arrayTargetMap);
     }
   }
 
-  private static void inflateVector(
-      KyrieDrawable.Builder builder,
+  private static void inflateTarget(
       Context context,
       XmlPullParser parser,
-      AttributeSet attrs,
-      @Nullable Map<String, Map<String, Animation[]>> targetMap)
+      AttributeReader reader,
+      List<PendingTarget> targets)
+      throws XmlPullParserException, IOException {
+    final AttributeReader.Attributes a = reader.obtainAttributes(Styleable.TARGET);
+    final String targetName = a.getString("name", Styleable.Target.NAME);
+    final int animatorResId = a.getResourceId("animation", Styleable.Target.ANIMATION, 0);
+    a.recycle();
+    if (animatorResId != 0) {
+      targets.add(PendingTarget.load(context, targetName, animatorResId));
+    }
+
+    final int outerDepth = parser.getDepth();
+    int type;
+    while ((type = parser.next()) != XmlPullParser.END_DOCUMENT
+        && (type != XmlPullParser.END_TAG || parser.getDepth() > outerDepth)) {
+      if (type == XmlPullParser.START_TAG && isInlineResource(parser, INLINE_ANIMATION)) {
+        final MyAnimator animator =
+            createAnimatorFromXml(context, parser, reader, null, ORDERING_TOGETHER);
+        if (animator != null) {
+          targets.add(new PendingTarget(targetName, null, animator.toMap(0)));
+        }
+      }
+    }
+  }
+
+  // The maximum number of threads that animator resources are loaded on. Inflation
+  // is mostly CPU bound, so a few threads are enough to keep the cores busy.
+  private static final int MAX_ANIMATOR_THREAD_COUNT = 4;
+
+  @Nullable private static ThreadPoolExecutor animatorExecutor;
+
+  /** Returns the executor that animator resources are loaded on. */
+  @NonNull
+  static synchronized Executor getAnimatorExecutor() {
+    if (animatorExecutor == null) {
+      final int threadCount =
+          Math.max(
+              1,
+              Math.min(MAX_ANIMATOR_THREAD_COUNT, Runtime.getRuntime().availableProcessors() - 1));
+      animatorExecutor =
+          new ThreadPoolExecutor(
+              threadCount,
+              threadCount,
+              1,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<Runnable>(),
+              new ThreadFactory() {
+                private final AtomicInteger threadNumber = new AtomicInteger();
+
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                  final Thread thread =
+                      new Thread(runnable, "KyrieAnimatorLoader-" + threadNumber.incrementAndGet());
+                  thread.setDaemon(true);
+                  return thread;
+                }
+              });
+      // Idle threads aren't kept around once the drawables have been inflated.
+      animatorExecutor.allowCoreThreadTimeOut(true);
+    }
+    return animatorExecutor;
+  }
+
+  /** The animations of a target, which may still be loading on a worker thread. */
+  private static final class PendingTarget {
+    @Nullable final String name;
+    @Nullable private final FutureTask<Map<String, List<Animation<?, ?>>>> task;
+    @Nullable private final Map<String, List<Animation<?, ?>>> animationMap;
+
+    /** Starts loading the animations of a target's animator resource. */
+    @NonNull
+    static PendingTarget load(
+        final Context context, @Nullable String name, @AnimatorRes final int animatorResId) {
+      final FutureTask<Map<String, List<Animation<?, ?>>>> task =
+          new FutureTask<>(
+              new Callable<Map<String, List<Animation<?, ?>>>>() {
+                @Override
+                public Map<String, List<Animation<?, ?>>> call() {
+                  return loadAnimationMap(context, animatorResId);
+                }
+              });
+      getAnimatorExecutor().execute(task);
+      return new PendingTarget(name, task, null);
+    }
+
+    PendingTarget(
+        @Nullable String name,
+        @Nullable FutureTask<Map<String, List<Animation<?, ?>>>> task,
+        @Nullable Map<String, List<Animation<?, ?>>> animationMap) {
+      this.name = name;
+      this.task = task;
+      this.animationMap = animationMap;
+    }
+
+    /** Returns the target's animations, waiting for them to load if necessary. */
+    @NonNull
+    Map<String, List<Animation<?, ?>>> getAnimationMap() throws InterruptedIOException {
+      if (task == null) {
+        return animationMap;
+      }
+      // If no worker has started loading the animator yet, load it on this thread
+      // instead of waiting. This does nothing if the task has already been started.
+      task.run();
+      try {
+        return task.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while loading the animations of " + name);
+      } catch (ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new RuntimeException(cause);
+      }
+    }
+  }
+
+  private static void addAnimations(
+      Map<String, Map<String, List<Animation<?, ?>>>> targetMap,
+      String targetName,
+      Map<String, List<Animation<?, ?>>> animationMap) {
+    if (targetMap.containsKey(targetName)) {
+      final Map<String, List<Animation<?, ?>>> existingAnimationMap = targetMap.get(targetName);
+      for (Map.Entry<String, List<Animation<?, ?>>> entry : animationMap.entrySet()) {
+        final String key = entry.getKey();
+        final List<Animation<?, ?>> value = entry.getValue();
+        if (existingAnimationMap.containsKey(key)) {
+          existingAnimationMap.get(key).addAll(value);
+        } else {
+          existingAnimationMap.put(key, value);
+        }
+      }
+    } else {
+      targetMap.put(targetName, animationMap);
+    }
+  }
+
+  private static boolean isInlineResource(XmlPullParser parser, String attrName) {
+    return TAG_AAPT_ATTR.equals(parser.getName())
+        && attrName.equals(parser.getAttributeValue(null, "name"));
+  }
+
+  /** Inflates the vector inside of an {@code <aapt:attr name="android:drawable">} element. */
+  private static void inflateInlineVector(
+      KyrieDrawable.Builder builder,
+      XmlPullParser parser,
+      AttributeReader reader,
+      Map<String, List<Object>> nodes)
       throws XmlPullParserException, IOException {
-    final TypedArray a = TypedArrayUtils.obtainAttributes(context, attrs, Styleable.VECTOR);
-    Map<String, Animation[]> animationMap = null;
-    if (targetMap != null) {
-      final String groupName = a.getString(Styleable.Vector.NAME);
-      if (groupName != null) {
-        animationMap = targetMap.get(groupName);
+    final int outerDepth = parser.getDepth();
+    int type;
+    while ((type = parser.next()) != XmlPullParser.END_DOCUMENT
+        && (type != XmlPullParser.END_TAG || parser.getDepth() > outerDepth)) {
+      if (type == XmlPullParser.START_TAG && TAG_VECTOR.equals(parser.getName())) {
+        inflateVector(builder, parser, reader, nodes);
       }
     }
-    updateVectorFromTypedArray(builder, a, parser, animationMap);
+  }
+
+  private static void inflateVector(
+      KyrieDrawable.Builder builder,
+      XmlPullParser parser,
+      AttributeReader reader,
+      Map<String, List<Object>> nodes)
+      throws XmlPullParserException, IOException {
+    final AttributeReader.Attributes a = reader.obtainAttributes(Styleable.VECTOR);
+    addNode(nodes, a.getString("name", Styleable.Vector.NAME), builder);
+    updateVectorFromAttributes(builder, a);
     a.recycle();
 
     // Use a stack to help to build the group tree. The top is always the current group.
@@ -190,7 +457,7 @@ final class InflationUtils {
         final String tagName = parser.getName();
         if (TAG_GROUP.equals(tagName)) {
           final GroupNode.Builder groupBuilder = GroupNode.builder();
-          inflateGroup(groupBuilder, context, parser, attrs, targetMap);
+          inflateGroup(groupBuilder, reader, nodes);
           if (groupBuilderStack.isEmpty()) {
             builder.child(groupBuilder);
           } else {
@@ -199,7 +466,7 @@ final class InflationUtils {
           groupBuilderStack.push(groupBuilder);
         } else if (TAG_PATH.equals(tagName)) {
           final PathNode.Builder pathBuilder = PathNode.builder();
-          inflatePath(pathBuilder, context, parser, attrs, targetMap);
+          inflatePath(pathBuilder, reader, nodes);
           if (groupBuilderStack.isEmpty()) {
             builder.child(pathBuilder);
           } else {
@@ -207,7 +474,7 @@ final class InflationUtils {
           }
         } else if (TAG_CLIP_PATH.equals(tagName)) {
           final ClipPathNode.Builder clipPathBuilder = ClipPathNode.builder();
-          inflateClipPath(clipPathBuilder, context, parser, attrs, targetMap);
+          inflateClipPath(clipPathBuilder, reader, nodes);
           if (groupBuilderStack.isEmpty()) {
             builder.child(clipPathBuilder);
           } else {
@@ -224,28 +491,48 @@ final class InflationUtils {
     }
   }
 
-  private static void updateVectorFromTypedArray(
-      KyrieDrawable.Builder builder,
-      TypedArray a,
-      XmlPullParser parser,
-      @Nullable Map<String, Animation[]> animationMap) {
-    builder.tintList(a.getColorStateList(Styleable.Vector.TINT));
-    final int tintMode =
-        TypedArrayUtils.getNamedInt(a, parser, "tintMode", Styleable.Vector.TINT_MODE, -1);
+  /** Records a named node builder, so that the animations targeting it can be applied later. */
+  private static void addNode(
+      Map<String, List<Object>> nodes, @Nullable String name, Object nodeBuilder) {
+    if (name == null) {
+      return;
+    }
+    List<Object> namedNodes = nodes.get(name);
+    if (namedNodes == null) {
+      namedNodes = new ArrayList<>(1);
+      nodes.put(name, namedNodes);
+    }
+    namedNodes.add(nodeBuilder);
+  }
+
+  private static void animateNode(Object nodeBuilder, Map<String, Animation[]> animationMap) {
+    if (nodeBuilder instanceof KyrieDrawable.Builder) {
+      animateVector((KyrieDrawable.Builder) nodeBuilder, animationMap);
+    } else if (nodeBuilder instanceof GroupNode.Builder) {
+      animateGroup((GroupNode.Builder) nodeBuilder, animationMap);
+    } else if (nodeBuilder instanceof PathNode.Builder) {
+      animatePath((PathNode.Builder) nodeBuilder, animationMap);
+    } else if (nodeBuilder instanceof ClipPathNode.Builder) {
+      animateClipPath((ClipPathNode.Builder) nodeBuilder, animationMap);
+    }
+  }
+
+  private static void updateVectorFromAttributes(
+      KyrieDrawable.Builder builder, AttributeReader.Attributes a) {
+    builder.tintList(a.getColorStateList("tint", Styleable.Vector.TINT));
+    final int tintMode = a.getInt("tintMode", Styleable.Vector.TINT_MODE, -1);
     builder.tintMode(parseTintMode(tintMode, PorterDuff.Mode.SRC_IN));
-    builder.autoMirrored(
-        TypedArrayUtils.getNamedBoolean(
-            a, parser, "autoMirrored", Styleable.Vector.AUTO_MIRRORED, false));
-    builder.viewportWidth(
-        TypedArrayUtils.getNamedFloat(
-            a, parser, "viewportWidth", Styleable.Vector.VIEWPORT_WIDTH, -1));
-    builder.viewportHeight(
-        TypedArrayUtils.getNamedFloat(
-            a, parser, "viewportHeight", Styleable.Vector.VIEWPORT_HEIGHT, -1));
-    builder.width((int) a.getDimension(Styleable.Vector.WIDTH, -1));
-    builder.height((int) a.getDimension(Styleable.Vector.HEIGHT, -1));
-    builder.alpha(TypedArrayUtils.getNamedFloat(a, parser, "alpha", Styleable.Vector.ALPHA, 1));
-    if (animationMap != null && animationMap.containsKey("alpha")) {
+    builder.autoMirrored(a.getBoolean("autoMirrored", Styleable.Vector.AUTO_MIRRORED, false));
+    builder.viewportWidth(a.getFloat("viewportWidth", Styleable.Vector.VIEWPORT_WIDTH, -1));
+    builder.viewportHeight(a.getFloat("viewportHeight", Styleable.Vector.VIEWPORT_HEIGHT, -1));
+    builder.width((int) a.getDimension("width", Styleable.Vector.WIDTH, -1));
+    builder.height((int) a.getDimension("height", Styleable.Vector.HEIGHT, -1));
+    builder.alpha(a.getFloat("alpha", Styleable.Vector.ALPHA, 1));
+  }
+
+  private static void animateVector(
+      KyrieDrawable.Builder builder, Map<String, Animation[]> animationMap) {
+    if (animationMap.containsKey("alpha")) {
       builder.alpha((Animation<?, Float>[]) animationMap.get("alpha"));
     }
   }
@@ -271,197 +558,147 @@ final class InflationUtils {
   }
 
   private static void inflateGroup(
-      GroupNode.Builder builder,
-      Context context,
-      XmlPullParser parser,
-      AttributeSet attrs,
-      @Nullable Map<String, Map<String, Animation[]>> targetMap) {
-    final TypedArray a = TypedArrayUtils.obtainAttributes(context, attrs, Styleable.GROUP);
-    Map<String, Animation[]> animationMap = null;
-    if (targetMap != null) {
-      final String groupName = a.getString(Styleable.Group.NAME);
-      if (groupName != null) {
-        animationMap = targetMap.get(groupName);
-      }
-    }
-    updateGroupFromTypedArray(builder, a, parser, animationMap);
+      GroupNode.Builder builder, AttributeReader reader, Map<String, List<Object>> nodes) {
+    final AttributeReader.Attributes a = reader.obtainAttributes(Styleable.GROUP);
+    addNode(nodes, a.getString("name", Styleable.Group.NAME), builder);
+    updateGroupFromAttributes(builder, a);
     a.recycle();
   }
 
-  private static void updateGroupFromTypedArray(
-      GroupNode.Builder builder,
-      TypedArray a,
-      XmlPullParser parser,
-      @Nullable Map<String, Animation[]> animationMap) {
-    builder.pivotX(a.getFloat(Styleable.Group.PIVOT_X, 0));
-    if (animationMap != null && animationMap.containsKey("pivotX")) {
+  private static void updateGroupFromAttributes(
+      GroupNode.Builder builder, AttributeReader.Attributes a) {
+    builder.pivotX(a.getFloat("pivotX", Styleable.Group.PIVOT_X, 0));
+    builder.pivotY(a.getFloat("pivotY", Styleable.Group.PIVOT_Y, 0));
+    builder.rotation(a.getFloat("rotation", Styleable.Group.ROTATION, 0));
+    builder.scaleX(a.getFloat("scaleX", Styleable.Group.SCALE_X, 1));
+    builder.scaleY(a.getFloat("scaleY", Styleable.Group.SCALE_Y, 1));
+    builder.translateX(a.getFloat("translateX", Styleable.Group.TRANSLATE_X, 0));
+    builder.translateY(a.getFloat("translateY", Styleable.Group.TRANSLATE_Y, 0));
+  }
+
+  private static void animateGroup(
+      GroupNode.Builder builder, Map<String, Animation[]> animationMap) {
+    if (animationMap.containsKey("pivotX")) {
       builder.pivotX((Animation<?, Float>[]) animationMap.get("pivotX"));
     }
-    builder.pivotY(a.getFloat(Styleable.Group.PIVOT_Y, 0));
-    if (animationMap != null && animationMap.containsKey("pivotY")) {
+    if (animationMap.containsKey("pivotY")) {
       builder.pivotY((Animation<?, Float>[]) animationMap.get("pivotY"));
     }
-    builder.rotation(
-        TypedArrayUtils.getNamedFloat(a, parser, "rotation", Styleable.Group.ROTATION, 0));
-    if (animationMap != null && animationMap.containsKey("rotation")) {
+    if (animationMap.containsKey("rotation")) {
       builder.rotation((Animation<?, Float>[]) animationMap.get("rotation"));
     }
-    builder.scaleX(TypedArrayUtils.getNamedFloat(a, parser, "scaleX", Styleable.Group.SCALE_X, 1));
-    if (animationMap != null && animationMap.containsKey("scaleX")) {
+    if (animationMap.containsKey("scaleX")) {
       builder.scaleX((Animation<?, Float>[]) animationMap.get("scaleX"));
     }
-    builder.scaleY(TypedArrayUtils.getNamedFloat(a, parser, "scaleY", Styleable.Group.SCALE_Y, 1));
-    if (animationMap != null && animationMap.containsKey("scaleY")) {
+    if (animationMap.containsKey("scaleY")) {
       builder.scaleY((Animation<?, Float>[]) animationMap.get("scaleY"));
     }
-    builder.translateX(
-        TypedArrayUtils.getNamedFloat(a, parser, "translateX", Styleable.Group.TRANSLATE_X, 0));
-    if (animationMap != null && animationMap.containsKey("translateX")) {
+    if (animationMap.containsKey("translateX")) {
       builder.translateX((Animation<?, Float>[]) animationMap.get("translateX"));
     }
-    builder.translateY(
-        TypedArrayUtils.getNamedFloat(a, parser, "translateY", Styleable.Group.TRANSLATE_Y, 0));
-    if (animationMap != null && animationMap.containsKey("translateY")) {
+    if (animationMap.containsKey("translateY")) {
       builder.translateY((Animation<?, Float>[]) animationMap.get("translateY"));
     }
   }
 
   private static void inflatePath(
-      PathNode.Builder builder,
-      Context context,
-      XmlPullParser parser,
-      AttributeSet attrs,
-      @Nullable Map<String, Map<String, Animation[]>> targetMap) {
-    final TypedArray a = TypedArrayUtils.obtainAttributes(context, attrs, Styleable.PATH);
-    Map<String, Animation[]> animationMap = null;
-    if (targetMap != null) {
-      final String pathName = a.getString(Styleable.Path.NAME);
-      if (pathName != null) {
-        animationMap = targetMap.get(pathName);
-      }
+      PathNode.Builder builder, AttributeReader reader, Map<String, List<Object>> nodes) {
+    final AttributeReader.Attributes a = reader.obtainAttributes(Styleable.PATH);
+    // Paths without path data are ignored, along with any animations that target them.
+    if (a.hasAttribute("pathData")) {
+      addNode(nodes, a.getString("name", Styleable.Path.NAME), builder);
+      updatePathFromAttributes(builder, a);
     }
-    updatePathFromTypedArray(builder, a, parser, animationMap);
     a.recycle();
   }
 
   // TODO: support transforms on paths
-  private static void updatePathFromTypedArray(
-      PathNode.Builder builder,
-      TypedArray a,
-      XmlPullParser parser,
-      @Nullable Map<String, Animation[]> animationMap) {
-    final boolean hasPathData = TypedArrayUtils.hasAttribute(parser, "pathData");
-    if (!hasPathData) {
-      return;
-    }
-    final String pathData = a.getString(Styleable.Path.PATH_DATA);
+  private static void updatePathFromAttributes(
+      PathNode.Builder builder, AttributeReader.Attributes a) {
+    final String pathData = a.getString("pathData", Styleable.Path.PATH_DATA);
     if (pathData != null) {
       builder.pathData(pathData);
-      if (animationMap != null && animationMap.containsKey("pathData")) {
-        builder.pathData((Animation<?, PathData>[]) animationMap.get("pathData"));
-      }
     }
-    builder.fillColor(
-        TypedArrayUtils.getNamedColor(
-            a, parser, "fillColor", Styleable.Path.FILL_COLOR, Color.TRANSPARENT));
-    if (animationMap != null && animationMap.containsKey("fillColor")) {
+    builder.fillColor(a.getColor("fillColor", Styleable.Path.FILL_COLOR, Color.TRANSPARENT));
+    builder.fillAlpha(a.getFloat("fillAlpha", Styleable.Path.FILL_ALPHA, 1));
+    builder.strokeColor(
+        a.getColor("strokeColor", Styleable.Path.STROKE_COLOR, Color.TRANSPARENT));
+    builder.strokeAlpha(a.getFloat("strokeAlpha", Styleable.Path.STROKE_ALPHA, 1));
+    builder.strokeWidth(a.getFloat("strokeWidth", Styleable.Path.STROKE_WIDTH, 0));
+    builder.trimPathStart(a.getFloat("trimPathStart", Styleable.Path.TRIM_PATH_START, 0));
+    builder.trimPathEnd(a.getFloat("trimPathEnd", Styleable.Path.TRIM_PATH_END, 1));
+    builder.trimPathOffset(a.getFloat("trimPathOffset", Styleable.Path.TRIM_PATH_OFFSET, 0));
+    @StrokeLineCap
+    final int lineCap =
+        a.getInt("strokeLineCap", Styleable.Path.STROKE_LINE_CAP, StrokeLineCap.BUTT);
+    builder.strokeLineCap(lineCap);
+    @StrokeLineJoin
+    final int lineJoin =
+        a.getInt("strokeLineJoin", Styleable.Path.STROKE_LINE_JOIN, StrokeLineJoin.MITER);
+    builder.strokeLineJoin(lineJoin);
+    builder.strokeMiterLimit(
+        a.getFloat("strokeMiterLimit", Styleable.Path.STROKE_MITER_LIMIT, 4));
+    @FillType
+    final int fillType = a.getInt("fillType", Styleable.Path.FILL_TYPE, FillType.NON_ZERO);
+    builder.fillType(fillType);
+  }
+
+  private static void animatePath(PathNode.Builder builder, Map<String, Animation[]> animationMap) {
+    if (animationMap.containsKey("pathData")) {
+      builder.pathData((Animation<?, PathData>[]) animationMap.get("pathData"));
+    }
+    if (animationMap.containsKey("fillColor")) {
       builder.fillColor((Animation<?, Integer>[]) animationMap.get("fillColor"));
     }
-    builder.fillAlpha(
-        TypedArrayUtils.getNamedFloat(a, parser, "fillAlpha", Styleable.Path.FILL_ALPHA, 1));
-    if (animationMap != null && animationMap.containsKey("fillAlpha")) {
+    if (animationMap.containsKey("fillAlpha")) {
       builder.fillAlpha((Animation<?, Float>[]) animationMap.get("fillAlpha"));
     }
-    builder.strokeColor(
-        TypedArrayUtils.getNamedColor(
-            a, parser, "strokeColor", Styleable.Path.STROKE_COLOR, Color.TRANSPARENT));
-    if (animationMap != null && animationMap.containsKey("strokeColor")) {
+    if (animationMap.containsKey("strokeColor")) {
       builder.strokeColor((Animation<?, Integer>[]) animationMap.get("strokeColor"));
     }
-    builder.strokeAlpha(
-        TypedArrayUtils.getNamedFloat(a, parser, "strokeAlpha", Styleable.Path.STROKE_ALPHA, 1));
-    if (animationMap != null && animationMap.containsKey("strokeAlpha")) {
+    if (animationMap.containsKey("strokeAlpha")) {
       builder.strokeAlpha((Animation<?, Float>[]) animationMap.get("strokeAlpha"));
     }
-    builder.strokeWidth(
-        TypedArrayUtils.getNamedFloat(a, parser, "strokeWidth", Styleable.Path.STROKE_WIDTH, 0));
-    if (animationMap != null && animationMap.containsKey("strokeWidth")) {
+    if (animationMap.containsKey("strokeWidth")) {
       builder.strokeWidth((Animation<?, Float>[]) animationMap.get("strokeWidth"));
     }
-    builder.trimPathStart(
-        TypedArrayUtils.getNamedFloat(
-            a, parser, "trimPathStart", Styleable.Path.TRIM_PATH_START, 0));
-    if (animationMap != null && animationMap.containsKey("trimPathStart")) {
+    if (animationMap.containsKey("trimPathStart")) {
       builder.trimPathStart((Animation<?, Float>[]) animationMap.get("trimPathStart"));
     }
-    builder.trimPathEnd(
-        TypedArrayUtils.getNamedFloat(a, parser, "trimPathEnd", Styleable.Path.TRIM_PATH_END, 1));
-    if (animationMap != null && animationMap.containsKey("trimPathEnd")) {
+    if (animationMap.containsKey("trimPathEnd")) {
       builder.trimPathEnd((Animation<?, Float>[]) animationMap.get("trimPathEnd"));
     }
-    builder.trimPathOffset(
-        TypedArrayUtils.getNamedFloat(
-            a, parser, "trimPathOffset", Styleable.Path.TRIM_PATH_OFFSET, 0));
-    if (animationMap != null && animationMap.containsKey("trimPathOffset")) {
+    if (animationMap.containsKey("trimPathOffset")) {
       builder.trimPathOffset((Animation<?, Float>[]) animationMap.get("trimPathOffset"));
     }
-    @StrokeLineCap
-    final int lineCap =
-        TypedArrayUtils.getNamedInt(
-            a, parser, "strokeLineCap", Styleable.Path.STROKE_LINE_CAP, StrokeLineCap.BUTT);
-    builder.strokeLineCap(lineCap);
-    @StrokeLineJoin
-    final int lineJoin =
-        TypedArrayUtils.getNamedInt(
-            a, parser, "strokeLineJoin", Styleable.Path.STROKE_LINE_JOIN, StrokeLineJoin.MITER);
-    builder.strokeLineJoin(lineJoin);
-    builder.strokeMiterLimit(
-        TypedArrayUtils.getNamedFloat(
-            a, parser, "strokeMiterLimit", Styleable.Path.STROKE_MITER_LIMIT, 4));
-    if (animationMap != null && animationMap.containsKey("strokeMiterLimit")) {
+    if (animationMap.containsKey("strokeMiterLimit")) {
       builder.strokeMiterLimit((Animation<?, Float>[]) animationMap.get("strokeMiterLimit"));
     }
-    @FillType
-    final int fillType =
-        TypedArrayUtils.getNamedInt(
-            a, parser, "fillType", Styleable.Path.FILL_TYPE, FillType.NON_ZERO);
-    builder.fillType(fillType);
   }
 
   private static void inflateClipPath(
-      ClipPathNode.Builder builder,
-      Context context,
-      XmlPullParser parser,
-      AttributeSet attrs,
-      @Nullable Map<String, Map<String, Animation[]>> targetMap) {
-    final TypedArray a = TypedArrayUtils.obtainAttributes(context, attrs, Styleable.CLIP_PATH);
-    Map<String, Animation[]> animationMap = null;
-    if (targetMap != null) {
-      final String pathName = a.getString(Styleable.ClipPath.NAME);
-      if (pathName != null) {
-        animationMap = targetMap.get(pathName);
-      }
+      ClipPathNode.Builder builder, AttributeReader reader, Map<String, List<Object>> nodes) {
+    final AttributeReader.Attributes a = reader.obtainAttributes(Styleable.CLIP_PATH);
+    if (a.hasAttribute("pathData")) {
+      addNode(nodes, a.getString("name", Styleable.ClipPath.NAME), builder);
+      updateClipPathFromAttributes(builder, a);
     }
-    updateClipPathFromTypedArray(builder, a, parser, animationMap);
     a.recycle();
   }
 
   // TODO: support transforms on clip paths
-  private static void updateClipPathFromTypedArray(
-      ClipPathNode.Builder builder,
-      TypedArray a,
-      XmlPullParser parser,
-      @Nullable Map<String, Animation[]> animationMap) {
-    final boolean hasPathData = TypedArrayUtils.hasAttribute(parser, "pathData");
-    if (!hasPathData) {
-      return;
-    }
-    final String pathData = a.getString(Styleable.ClipPath.PATH_DATA);
+  private static void updateClipPathFromAttributes(
+      ClipPathNode.Builder builder, AttributeReader.Attributes a) {
+    final String pathData = a.getString("pathData", Styleable.ClipPath.PATH_DATA);
     if (pathData != null) {
       builder.pathData(pathData);
-      if (animationMap != null && animationMap.containsKey("pathData")) {
-        builder.pathData((Animation<?, PathData>[]) animationMap.get("pathData"));
-      }
+    }
+  }
+
+  private static void animateClipPath(
+      ClipPathNode.Builder builder, Map<String, Animation[]> animationMap) {
+    if (animationMap.containsKey("pathData")) {
+      builder.pathData((Animation<?, PathData>[]) animationMap.get("pathData"));
     }
   }
 
@@ -500,9 +737,8 @@ final class InflationUtils {
     XmlResourceParser parser = null;
     try {
       parser = context.getResources().getAnimation(id);
-      return createAnimatorFromXml(
-              context, parser, Xml.asAttributeSet(parser), null, ORDERING_TOGETHER)
-          .toMap(0);
+      final AttributeReader reader = AttributeReader.forResource(context, parser);
+      return createAnimatorFromXml(context, parser, reader, null, ORDERING_TOGETHER).toMap(0);
     } catch (XmlPullParserException | IOException ex) {
       final NotFoundException rnf =
           new NotFoundException("Can't load animation resource ID #0x" + Integer.toHexString(id));
@@ -519,7 +755,7 @@ final class InflationUtils {
   private static MyAnimator createAnimatorFromXml(
       Context context,
       XmlPullParser parser,
-      AttributeSet attrs,
+      AttributeReader reader,
       @Nullable MyAnimatorSet parent,
       @Ordering int sequenceOrdering)
       throws XmlPullParserException, IOException {
@@ -541,19 +777,16 @@ final class InflationUtils {
       boolean gotValues = false;
 
       if (name.equals("objectAnimator")) {
-        anim = loadObjectAnimator(context, attrs, parser);
+        anim = loadObjectAnimator(context, reader, parser);
       } else if (name.equals("set")) {
         anim = new MyAnimatorSet();
-        final TypedArray a =
-            TypedArrayUtils.obtainAttributes(context, attrs, Styleable.ANIMATOR_SET);
+        final AttributeReader.Attributes a = reader.obtainAttributes(Styleable.ANIMATOR_SET);
         final int ordering =
-            TypedArrayUtils.getNamedInt(
-                a, parser, "ordering", Styleable.AnimatorSet.ORDERING, ORDERING_TOGETHER);
-        createAnimatorFromXml(context, parser, attrs, (MyAnimatorSet) anim, ordering);
+            a.getInt("ordering", Styleable.AnimatorSet.ORDERING, ORDERING_TOGETHER);
         a.recycle();
+        createAnimatorFromXml(context, parser, reader, (MyAnimatorSet) anim, ordering);
       } else if (name.equals("propertyValuesHolder")) {
-        final MyPropertyValuesHolder[] values =
-            loadValues(context, parser, Xml.asAttributeSet(parser));
+        final MyPropertyValuesHolder[] values = loadValues(context, parser, reader);
         if (values != null && anim instanceof MyObjectAnimator) {
           ((MyObjectAnimator) anim).setValues(values);
         }
@@ -587,16 +820,14 @@ final class InflationUtils {
   }
 
   private static MyObjectAnimator loadObjectAnimator(
-      Context context, AttributeSet attrs, XmlPullParser parser) throws NotFoundException {
+      Context context, AttributeReader reader, XmlPullParser parser) throws NotFoundException {
     final MyObjectAnimator anim = new MyObjectAnimator();
-    final TypedArray arrayAnimator =
-        TypedArrayUtils.obtainAttributes(context, attrs, Styleable.ANIMATOR);
-    final TypedArray arrayObjectAnimator =
-        TypedArrayUtils.obtainAttributes(context, attrs, Styleable.PROPERTY_ANIMATOR);
+    final AttributeReader.Attributes arrayAnimator = reader.obtainAttributes(Styleable.ANIMATOR);
+    final AttributeReader.Attributes arrayObjectAnimator =
+        reader.obtainAttributes(Styleable.PROPERTY_ANIMATOR);
     parseAnimatorFromTypeArray(anim, arrayAnimator, arrayObjectAnimator, parser);
     final int resId =
-        TypedArrayUtils.getNamedResourceId(
-            arrayAnimator, parser, "interpolator", Styleable.Animator.INTERPOLATOR, 0);
+        arrayAnimator.getResourceId("interpolator", Styleable.Animator.INTERPOLATOR, 0);
     if (resId > 0) {
       anim.setInterpolator(loadInterpolator(context, resId));
     }
@@ -607,41 +838,32 @@ final class InflationUtils {
 
   /**
    * @param anim The animator, must not be null
-   * @param arrayAnimator Incoming typed array for Animator's attributes.
-   * @param arrayObjectAnimator Incoming typed array for Object Animator's attributes.
+   * @param arrayAnimator Incoming attributes for Animator's attributes.
+   * @param arrayObjectAnimator Incoming attributes for Object Animator's attributes.
    */
   private static void parseAnimatorFromTypeArray(
       MyObjectAnimator anim,
-      TypedArray arrayAnimator,
-      TypedArray arrayObjectAnimator,
+      AttributeReader.Attributes arrayAnimator,
+      AttributeReader.Attributes arrayObjectAnimator,
       XmlPullParser parser) {
-    final long duration = arrayAnimator.getInt(Styleable.Animator.DURATION, 300);
-    final long startDelay = arrayAnimator.getInt(Styleable.Animator.START_OFFSET, 0);
+    final long duration = arrayAnimator.getInt("duration", Styleable.Animator.DURATION, 300);
+    final long startDelay =
+        arrayAnimator.getInt("startOffset", Styleable.Animator.START_OFFSET, 0);
     int valueType =
-        TypedArrayUtils.getNamedInt(
-            arrayAnimator,
-            parser,
-            "valueType",
-            Styleable.Animator.VALUE_TYPE,
-            VALUE_TYPE_UNDEFINED);
+        arrayAnimator.getInt("valueType", Styleable.Animator.VALUE_TYPE, VALUE_TYPE_UNDEFINED);
 
     // Change to requiring both value from and to, otherwise, throw exception for now.
-    if (TypedArrayUtils.hasAttribute(parser, "valueFrom")
-        && TypedArrayUtils.hasAttribute(parser, "valueTo")) {
+    if (arrayAnimator.hasAttribute("valueFrom") && arrayAnimator.hasAttribute("valueTo")) {
       if (valueType == VALUE_TYPE_UNDEFINED) {
         valueType =
             inferValueTypeFromValues(
                 arrayAnimator, Styleable.Animator.VALUE_FROM, Styleable.Animator.VALUE_TO);
       }
       final String propertyName =
-          TypedArrayUtils.getNamedString(
-              arrayObjectAnimator,
-              parser,
-              "propertyName",
-              Styleable.PropertyAnimator.PROPERTY_NAME);
+          arrayObjectAnimator.getString("propertyName", Styleable.PropertyAnimator.PROPERTY_NAME);
       if (propertyName == null) {
         throw new InflateException(
-            arrayObjectAnimator.getPositionDescription() + " propertyName must not be null");
+            parser.getPositionDescription() + " propertyName must not be null");
       }
       final MyPropertyValuesHolder pvh =
           getPVH(
@@ -657,13 +879,14 @@ final class InflationUtils {
 
     anim.setDuration(duration);
     anim.setStartDelay(startDelay);
-    anim.setRepeatCount(arrayAnimator.getInt(Styleable.Animator.REPEAT_COUNT, 0));
-    anim.setRepeatMode(arrayAnimator.getInt(Styleable.Animator.REPEAT_MODE, ValueAnimator.RESTART));
+    anim.setRepeatCount(arrayAnimator.getInt("repeatCount", Styleable.Animator.REPEAT_COUNT, 0));
+    anim.setRepeatMode(
+        arrayAnimator.getInt(
+            "repeatMode", Styleable.Animator.REPEAT_MODE, ValueAnimator.RESTART));
 
     // Setup the object animator.
     final String pathData =
-        TypedArrayUtils.getNamedString(
-            arrayObjectAnimator, parser, "pathData", Styleable.PropertyAnimator.PATH_DATA);
+        arrayObjectAnimator.getString("pathData", Styleable.PropertyAnimator.PATH_DATA);
 
     if (pathData != null) {
       // Path can be involved in an PropertyAnimator in the following 3 ways:
@@ -675,20 +898,14 @@ final class InflationUtils {
       // 3) PathInterpolator can also define a path (in pathData) for its interpolation curve.
       // Here we are dealing with case 2.
       final String propertyXName =
-          TypedArrayUtils.getNamedString(
-              arrayObjectAnimator,
-              parser,
-              "propertyXName",
-              Styleable.PropertyAnimator.PROPERTY_X_NAME);
+          arrayObjectAnimator.getString(
+              "propertyXName", Styleable.PropertyAnimator.PROPERTY_X_NAME);
       final String propertyYName =
-          TypedArrayUtils.getNamedString(
-              arrayObjectAnimator,
-              parser,
-              "propertyYName",
-              Styleable.PropertyAnimator.PROPERTY_Y_NAME);
+          arrayObjectAnimator.getString(
+              "propertyYName", Styleable.PropertyAnimator.PROPERTY_Y_NAME);
       if (propertyXName == null && propertyYName == null) {
         throw new InflateException(
-            arrayObjectAnimator.getPositionDescription()
+            parser.getPositionDescription()
                 + " propertyXName or propertyYName is needed for PathData");
       }
       anim.setValues(
@@ -699,13 +916,11 @@ final class InflationUtils {
 
   @ValueType
   private static int inferValueTypeFromValues(
-      TypedArray styledAttributes, int valueFromId, int valueToId) {
-    final TypedValue tvFrom = styledAttributes.peekValue(valueFromId);
-    final boolean hasFrom = tvFrom != null;
-    final int fromType = hasFrom ? tvFrom.type : 0;
-    final TypedValue tvTo = styledAttributes.peekValue(valueToId);
-    final boolean hasTo = tvTo != null;
-    final int toType = hasTo ? tvTo.type : 0;
+      AttributeReader.Attributes styledAttributes, int valueFromId, int valueToId) {
+    final int fromType = styledAttributes.getType("valueFrom", valueFromId);
+    final boolean hasFrom = fromType != TypedValue.TYPE_NULL;
+    final int toType = styledAttributes.getType("valueTo", valueToId);
+    final boolean hasTo = toType != TypedValue.TYPE_NULL;
 
     int valueType;
     // Check whether it's a color type. If not, fall back to default type (i.e. float type).
@@ -718,7 +933,7 @@ final class InflationUtils {
   }
 
   private static MyPropertyValuesHolder[] loadValues(
-      Context context, XmlPullParser parser, AttributeSet attrs)
+      Context context, XmlPullParser parser, AttributeReader reader)
       throws XmlPullParserException, IOException {
     ArrayList<MyPropertyValuesHolder> values = null;
 
@@ -733,34 +948,36 @@ final class InflationUtils {
       String name = parser.getName();
 
       if (name.equals("propertyValuesHolder")) {
-        final TypedArray a =
-            TypedArrayUtils.obtainAttributes(context, attrs, Styleable.PROPERTY_VALUES_HOLDER);
+        final AttributeReader.Attributes a =
+            reader.obtainAttributes(Styleable.PROPERTY_VALUES_HOLDER);
         final String propertyName =
-            TypedArrayUtils.getNamedString(
-                a, parser, "propertyName", Styleable.PropertyValuesHolder.PROPERTY_NAME);
+            a.getString("propertyName", Styleable.PropertyValuesHolder.PROPERTY_NAME);
         int valueType =
-            TypedArrayUtils.getNamedInt(
-                a,
-                parser,
-                "valueType",
-                Styleable.PropertyValuesHolder.VALUE_TYPE,
-                VALUE_TYPE_UNDEFINED);
-
-        MyPropertyValuesHolder pvh = loadPvh(context, parser, propertyName, valueType);
+            a.getInt(
+                "valueType", Styleable.PropertyValuesHolder.VALUE_TYPE, VALUE_TYPE_UNDEFINED);
+
+        // Attributes are read by name from the parser, so the values must be
+        // read before the parser moves on to any of the keyframes.
+        final MyPropertyValuesHolder valuesPvh =
+            valueType == VALUE_TYPE_PATH
+                    && !(a.hasAttribute("valueFrom") && a.hasAttribute("valueTo"))
+                ? null
+                : getPVH(
+                    a,
+                    valueType,
+                    Styleable.PropertyValuesHolder.VALUE_FROM,
+                    Styleable.PropertyValuesHolder.VALUE_TO,
+                    propertyName);
+        a.recycle();
+
+        MyPropertyValuesHolder pvh = loadPvh(context, parser, reader, propertyName, valueType);
         if (pvh == null) {
-          pvh =
-              getPVH(
-                  a,
-                  valueType,
-                  Styleable.PropertyValuesHolder.VALUE_FROM,
-                  Styleable.PropertyValuesHolder.VALUE_TO,
-                  propertyName);
+          pvh = valuesPvh;
         }
         if (values == null) {
           values = new ArrayList<>();
         }
         values.add(pvh);
-        a.recycle();
       }
 
       parser.next();
@@ -780,7 +997,11 @@ final class InflationUtils {
   /** Load property values holder if there are keyframes defined in it. Otherwise return null. */
   @Nullable
   private static MyPropertyValuesHolder loadPvh(
-      Context context, XmlPullParser parser, String propertyName, @ValueType int valueType)
+      Context context,
+      XmlPullParser parser,
+      AttributeReader reader,
+      String propertyName,
+      @ValueType int valueType)
       throws XmlPullParserException, IOException {
     ArrayList<Keyframe> keyframes = null;
 
@@ -789,10 +1010,9 @@ final class InflationUtils {
       final String name = parser.getName();
       if (name.equals("keyframe")) {
         if (valueType == VALUE_TYPE_UNDEFINED) {
-          valueType = inferValueTypeOfKeyframe(context, Xml.asAttributeSet(parser), parser);
+          valueType = inferValueTypeOfKeyframe(reader);
         }
-        final Keyframe keyframe =
-            loadKeyframe(context, Xml.asAttributeSet(parser), valueType, parser);
+        final Keyframe keyframe = loadKeyframe(context, reader, valueType);
         if (keyframe != null) {
           if (keyframes == null) {
             keyframes = new ArrayList<>();
@@ -869,16 +1089,13 @@ final class InflationUtils {
    * default float type is returned.
    */
   @ValueType
-  private static int inferValueTypeOfKeyframe(
-      Context context, AttributeSet attrs, XmlPullParser parser) {
+  private static int inferValueTypeOfKeyframe(AttributeReader reader) {
     @ValueType int valueType;
-    final TypedArray a = TypedArrayUtils.obtainAttributes(context, attrs, Styleable.KEYFRAME);
-    final TypedValue keyframeValue =
-        TypedArrayUtils.peekNamedValue(a, parser, "value", Styleable.Keyframe.VALUE);
-    final boolean hasValue = keyframeValue != null;
+    final AttributeReader.Attributes a = reader.obtainAttributes(Styleable.KEYFRAME);
+    final int keyframeValueType = a.getType("value", Styleable.Keyframe.VALUE);
     // When no value type is provided, check whether it's a color type first.
     // If not, fall back to default float value type.
-    if (hasValue && isColorType(keyframeValue.type)) {
+    if (isColorType(keyframeValueType)) {
       valueType = VALUE_TYPE_COLOR;
     } else {
       valueType = VALUE_TYPE_FLOAT;
@@ -889,17 +1106,15 @@ final class InflationUtils {
 
   @Nullable
   private static MyPropertyValuesHolder getPVH(
-      TypedArray styledAttributes,
+      AttributeReader.Attributes styledAttributes,
       @ValueType int valueType,
       int valueFromId,
       int valueToId,
       String propertyName) {
-    final TypedValue tvFrom = styledAttributes.peekValue(valueFromId);
-    final boolean hasFrom = tvFrom != null;
-    final int fromType = hasFrom ? tvFrom.type : 0;
-    final TypedValue tvTo = styledAttributes.peekValue(valueToId);
-    final boolean hasTo = tvTo != null;
-    final int toType = hasTo ? tvTo.type : 0;
+    final int fromType = styledAttributes.getType("valueFrom", valueFromId);
+    final boolean hasFrom = fromType != TypedValue.TYPE_NULL;
+    final int toType = styledAttributes.getType("valueTo", valueToId);
+    final boolean hasTo = toType != TypedValue.TYPE_NULL;
 
     if (valueType == VALUE_TYPE_UNDEFINED) {
       // Check whether it's color type. If not, fall back to default type (i.e. float type)
@@ -911,8 +1126,8 @@ final class InflationUtils {
     }
 
     if (valueType == VALUE_TYPE_PATH) {
-      final String fromString = styledAttributes.getString(valueFromId);
-      final String toString = styledAttributes.getString(valueToId);
+      final String fromString = styledAttributes.getString("valueFrom", valueFromId);
+      final String toString = styledAttributes.getString("valueTo", valueToId);
       final PathData nodesFrom = PathData.parse(fromString);
       final PathData nodesTo = PathData.parse(toString);
       if (!nodesFrom.canMorphWith(nodesTo)) {
@@ -926,15 +1141,15 @@ final class InflationUtils {
       float valueTo;
       if (hasFrom) {
         if (fromType == TypedValue.TYPE_DIMENSION) {
-          valueFrom = styledAttributes.getDimension(valueFromId, 0f);
+          valueFrom = styledAttributes.getDimension("valueFrom", valueFromId, 0f);
         } else {
-          valueFrom = styledAttributes.getFloat(valueFromId, 0f);
+          valueFrom = styledAttributes.getFloat("valueFrom", valueFromId, 0f);
         }
         if (hasTo) {
           if (toType == TypedValue.TYPE_DIMENSION) {
-            valueTo = styledAttributes.getDimension(valueToId, 0f);
+            valueTo = styledAttributes.getDimension("valueTo", valueToId, 0f);
           } else {
-            valueTo = styledAttributes.getFloat(valueToId, 0f);
+            valueTo = styledAttributes.getFloat("valueTo", valueToId, 0f);
           }
           return new MySimplePropertyValuesHolder(propertyName, valueFrom, valueTo, valueType);
         } else {
@@ -942,9 +1157,9 @@ final class InflationUtils {
         }
       } else {
         if (toType == TypedValue.TYPE_DIMENSION) {
-          valueTo = styledAttributes.getDimension(valueToId, 0f);
+          valueTo = styledAttributes.getDimension("valueTo", valueToId, 0f);
         } else {
-          valueTo = styledAttributes.getFloat(valueToId, 0f);
+          valueTo = styledAttributes.getFloat("valueTo", valueToId, 0f);
         }
         return new MySimplePropertyValuesHolder(propertyName, null, valueTo, valueType);
       }
@@ -954,19 +1169,19 @@ final class InflationUtils {
     int valueTo;
     if (hasFrom) {
       if (fromType == TypedValue.TYPE_DIMENSION) {
-        valueFrom = (int) styledAttributes.getDimension(valueFromId, 0f);
+        valueFrom = (int) styledAttributes.getDimension("valueFrom", valueFromId, 0f);
       } else if (isColorType(fromType)) {
-        valueFrom = styledAttributes.getColor(valueFromId, 0);
+        valueFrom = styledAttributes.getColor("valueFrom", valueFromId, 0);
       } else {
-        valueFrom = styledAttributes.getInt(valueFromId, 0);
+        valueFrom = styledAttributes.getInt("valueFrom", valueFromId, 0);
       }
       if (hasTo) {
         if (toType == TypedValue.TYPE_DIMENSION) {
-          valueTo = (int) styledAttributes.getDimension(valueToId, 0f);
+          valueTo = (int) styledAttributes.getDimension("valueTo", valueToId, 0f);
         } else if (isColorType(toType)) {
-          valueTo = styledAttributes.getColor(valueToId, 0);
+          valueTo = styledAttributes.getColor("valueTo", valueToId, 0);
         } else {
-          valueTo = styledAttributes.getInt(valueToId, 0);
+          valueTo = styledAttributes.getInt("valueTo", valueToId, 0);
         }
         return new MySimplePropertyValuesHolder(propertyName, valueFrom, valueTo, valueType);
       } else {
@@ -975,11 +1190,11 @@ final class InflationUtils {
     } else {
       if (hasTo) {
         if (toType == TypedValue.TYPE_DIMENSION) {
-          valueTo = (int) styledAttributes.getDimension(valueToId, 0f);
+          valueTo = (int) styledAttributes.getDimension("valueTo", valueToId, 0f);
         } else if (isColorType(toType)) {
-          valueTo = styledAttributes.getColor(valueToId, 0);
+          valueTo = styledAttributes.getColor("valueTo", valueToId, 0);
         } else {
-          valueTo = styledAttributes.getInt(valueToId, 0);
+          valueTo = styledAttributes.getInt("valueTo", valueToId, 0);
         }
         return new MySimplePropertyValuesHolder(propertyName, null, valueTo, valueType);
       }
@@ -1012,19 +1227,17 @@ final class InflationUtils {
   }
 
   private static Keyframe loadKeyframe(
-      Context context, AttributeSet attrs, @ValueType int valueType, XmlPullParser parser)
+      Context context, AttributeReader reader, @ValueType int valueType)
       throws XmlPullParserException, IOException {
-    final TypedArray a = TypedArrayUtils.obtainAttributes(context, attrs, Styleable.KEYFRAME);
-    float fraction =
-        TypedArrayUtils.getNamedFloat(a, parser, "fraction", Styleable.Keyframe.FRACTION, -1);
+    final AttributeReader.Attributes a = reader.obtainAttributes(Styleable.KEYFRAME);
+    float fraction = a.getFloat("fraction", Styleable.Keyframe.FRACTION, -1);
 
-    final TypedValue keyframeValue =
-        TypedArrayUtils.peekNamedValue(a, parser, "value", Styleable.Keyframe.VALUE);
-    final boolean hasValue = (keyframeValue != null);
+    final int keyframeValueType = a.getType("value", Styleable.Keyframe.VALUE);
+    final boolean hasValue = keyframeValueType != TypedValue.TYPE_NULL;
     if (valueType == VALUE_TYPE_UNDEFINED) {
       // When no value type is provided, check whether it's a color type first.
       // If not, fall back to default value type (i.e. float type).
-      if (hasValue && isColorType(keyframeValue.type)) {
+      if (hasValue && isColorType(keyframeValueType)) {
         valueType = VALUE_TYPE_COLOR;
       } else {
         valueType = VALUE_TYPE_FLOAT;
@@ -1036,14 +1249,12 @@ final class InflationUtils {
     if (hasValue) {
       switch (valueType) {
         case VALUE_TYPE_FLOAT:
-          float value =
-              TypedArrayUtils.getNamedFloat(a, parser, "value", Styleable.Keyframe.VALUE, 0);
+          float value = a.getFloat("value", Styleable.Keyframe.VALUE, 0);
           keyframe = Keyframe.of(fraction, value);
           break;
         case VALUE_TYPE_COLOR:
         case VALUE_TYPE_INT:
-          int intValue =
-              TypedArrayUtils.getNamedInt(a, parser, "value", Styleable.Keyframe.VALUE, 0);
+          int intValue = a.getInt("value", Styleable.Keyframe.VALUE, 0);
           keyframe = Keyframe.of(fraction, intValue);
           break;
       }
@@ -1051,9 +1262,7 @@ final class InflationUtils {
       keyframe = (valueType == VALUE_TYPE_FLOAT) ? Keyframe.of(fraction) : Keyframe.of(fraction);
     }
 
-    final int resId =
-        TypedArrayUtils.getNamedResourceId(
-            a, parser, "interpolator", Styleable.Keyframe.INTERPOLATOR, 0);
+    final int resId = a.getResourceId("interpolator", Styleable.Keyframe.INTERPOLATOR, 0);
     if (resId > 0) {
       keyframe.interpolator(loadInterpolator(context, resId));
     }
@@ -1475,7 +1684,7 @@ final class InflationUtils {
       } else if (name.equals("bounceInterpolator")) {
         interpolator = new BounceInterpolator();
       } else if (name.equals("pathInterpolator")) {
-        interpolator = inflatePathInterpolator(context, attrs, parser);
+        interpolator = inflatePathInterpolator(context, parser);
       } else {
         throw new RuntimeException("Unknown interpolator name: " + parser.getName());
       }
@@ -1485,22 +1694,18 @@ final class InflationUtils {
   }
 
   @NonNull
-  private static TimeInterpolator inflatePathInterpolator(
-      Context context, AttributeSet attrs, XmlPullParser parser) {
-    final TypedArray a =
-        TypedArrayUtils.obtainAttributes(context, attrs, Styleable.PATH_INTERPOLATOR);
-    final TimeInterpolator interpolator = parseInterpolatorFromTypeArray(a, parser);
+  private static TimeInterpolator inflatePathInterpolator(Context context, XmlPullParser parser) {
+    final AttributeReader.Attributes a =
+        AttributeReader.forResource(context, parser).obtainAttributes(Styleable.PATH_INTERPOLATOR);
+    final TimeInterpolator interpolator = parseInterpolatorFromTypeArray(a);
     a.recycle();
     return interpolator;
   }
 
   @NonNull
-  private static TimeInterpolator parseInterpolatorFromTypeArray(
-      TypedArray a, XmlPullParser parser) {
-    if (TypedArrayUtils.hasAttribute(parser, "pathData")) {
-      final String pathData =
-          TypedArrayUtils.getNamedString(
-              a, parser, "pathData", Styleable.PathInterpolator.PATH_DATA);
+  private static TimeInterpolator parseInterpolatorFromTypeArray(AttributeReader.Attributes a) {
+    if (a.hasAttribute("pathData")) {
+      final String pathData = a.getString("pathData", Styleable.PathInterpolator.PATH_DATA);
       final Path path = PathData.toPath(pathData);
       if (path.isEmpty()) {
         throw new InflateException("The path cannot be empty");
@@ -1508,21 +1713,17 @@ final class InflationUtils {
       return PathInterpolatorCompat.create(path);
     }
 
-    if (!TypedArrayUtils.hasAttribute(parser, "controlX1")) {
+    if (!a.hasAttribute("controlX1")) {
       throw new InflateException("pathInterpolator requires the controlX1 attribute");
-    } else if (!TypedArrayUtils.hasAttribute(parser, "controlY1")) {
+    } else if (!a.hasAttribute("controlY1")) {
       throw new InflateException("pathInterpolator requires the controlY1 attribute");
     }
 
-    final float x1 =
-        TypedArrayUtils.getNamedFloat(
-            a, parser, "controlX1", Styleable.PathInterpolator.CONTROL_X1, 0);
-    final float y1 =
-        TypedArrayUtils.getNamedFloat(
-            a, parser, "controlY1", Styleable.PathInterpolator.CONTROL_Y1, 0);
+    final float x1 = a.getFloat("controlX1", Styleable.PathInterpolator.CONTROL_X1, 0);
+    final float y1 = a.getFloat("controlY1", Styleable.PathInterpolator.CONTROL_Y1, 0);
 
-    final boolean hasX2 = TypedArrayUtils.hasAttribute(parser, "controlX2");
-    final boolean hasY2 = TypedArrayUtils.hasAttribute(parser, "controlY2");
+    final boolean hasX2 = a.hasAttribute("controlX2");
+    final boolean hasY2 = a.hasAttribute("controlY2");
 
     if (hasX2 != hasY2) {
       throw new InflateException(
@@ -1530,12 +1731,8 @@ final class InflationUtils {
     }
 
     if (hasX2) {
-      float x2 =
-          TypedArrayUtils.getNamedFloat(
-              a, parser, "controlX2", Styleable.PathInterpolator.CONTROL_X2, 0);
-      float y2 =
-          TypedArrayUtils.getNamedFloat(
-              a, parser, "controlY2", Styleable.PathInterpolator.CONTROL_Y2, 0);
+      float x2 = a.getFloat("controlX2", Styleable.PathInterpolator.CONTROL_X2, 0);
+      float y2 = a.getFloat("controlY2", Styleable.PathInterpolator.CONTROL_Y2, 0);
       return PathInterpolatorCompat.create(x1, y1, x2, y2);
     } else {
       return PathInterpolatorCompat.create(x1, y1);
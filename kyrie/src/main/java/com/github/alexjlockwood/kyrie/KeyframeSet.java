@@ -62,6 +62,12 @@ abstract class KeyframeSet<T> {
     return new ObjectKeyframeSet<>(evaluator, list);
   }
 
+  /** @return A {@link ConstantKeyframeSet} that always evaluates to the given value. */
+  @NonNull
+  public static <T> KeyframeSet<T> ofConstant(T value) {
+    return new ConstantKeyframeSet<>(value);
+  }
+
   /** @return A {@link PathKeyframeSet} that estimates motion along the given path. */
   @NonNull
   public static KeyframeSet<PointF> ofPath(Path path) {
@@ -5,6 +5,7 @@ import android.animation.AnimatorListenerAdapter;
 import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.ColorStateList;
+import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
@@ -16,14 +17,20 @@ import android.graphics.PointF;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffColorFilter;
 import android.graphics.Rect;
+import android.graphics.RectF;
 import android.graphics.drawable.Animatable;
 import android.graphics.drawable.AnimatedVectorDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.VectorDrawable;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.ColorInt;
 import android.support.annotation.DrawableRes;
 import android.support.annotation.FloatRange;
 import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.Px;
@@ -35,8 +42,14 @@ import android.view.animation.LinearInterpolator;
 import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import static com.github.alexjlockwood.kyrie.Node.asAnimation;
 import static com.github.alexjlockwood.kyrie.Node.asAnimations;
@@ -54,6 +67,30 @@ public final class KyrieDrawable extends Drawable implements Animatable {
   // The drawable will look blurry above this size.
   private static final int MAX_CACHED_BITMAP_SIZE = 2048;
 
+  // When adaptive frame rates are enabled, drawables whose largest on-screen
+  // dimension is at most this many dips are capped to the corresponding rate.
+  private static final float SMALL_DRAWABLE_SIZE_DP = 48f;
+  private static final float SMALL_DRAWABLE_MAX_FRAME_RATE = 30f;
+  private static final float TINY_DRAWABLE_SIZE_DP = 24f;
+  private static final float TINY_DRAWABLE_MAX_FRAME_RATE = 15f;
+
+  /** Indicates that a drawable's frame rate shouldn't be capped. */
+  public static final float UNLIMITED_FRAME_RATE = 0f;
+
+  @FloatRange(from = 0f)
+  private static float defaultMaxFrameRate = UNLIMITED_FRAME_RATE;
+
+  /**
+   * Sets the maximum frame rate used by all drawables that don't specify their own using {@link
+   * Builder#maxFrameRate(float)}. Defaults to {@link #UNLIMITED_FRAME_RATE}. Must be called on the
+   * main thread.
+   *
+   * @param maxFrameRate The maximum number of frames per second, or {@link #UNLIMITED_FRAME_RATE}.
+   */
+  public static void setDefaultMaxFrameRate(@FloatRange(from = 0f) float maxFrameRate) {
+    defaultMaxFrameRate = Math.max(0f, maxFrameRate);
+  }
+
   /**
    * Creates a {@link KyrieDrawable} from an existing {@link VectorDrawable} or {@link
    * AnimatedVectorDrawable} XML file.
@@ -71,6 +108,88 @@ public final class KyrieDrawable extends Drawable implements Animatable {
     }
   }
 
+  /**
+   * Creates a {@link KyrieDrawable} from an existing {@link VectorDrawable} or {@link
+   * AnimatedVectorDrawable} XML file, returning as soon as its static vector has been inflated.
+   * The animated vector's target animators continue to load on worker threads, and the drawable
+   * shows the vector's initial state until they have been applied. Calling {@link #start()}, or
+   * any other method that depends on the animation's timeline, waits for them to finish loading.
+   */
+  @Nullable
+  public static KyrieDrawable createProgressively(Context context, @DrawableRes int resId) {
+    try {
+      final KyrieDrawable.Builder builder = KyrieDrawable.builder();
+      final InflationUtils.PendingAnimations animations =
+          InflationUtils.inflateProgressively(builder, context, resId);
+      final KyrieDrawable drawable = builder.build();
+      if (animations != null) {
+        drawable.loadAnimations(animations);
+      }
+      return drawable;
+    } catch (XmlPullParserException | IOException e) {
+      e.printStackTrace();
+      Log.e(TAG, "Error parsing drawable", e);
+      return null;
+    }
+  }
+
+  /**
+   * Creates a {@link KyrieDrawable} from an uncompiled {@link VectorDrawable} or {@link
+   * AnimatedVectorDrawable} XML document, such as one that was downloaded at runtime. The document
+   * is parsed while it is read from the stream, and this method can be called on any thread. The
+   * animated vector's drawable and target animations can either be inlined using {@code
+   * <aapt:attr>} elements, or reference resources by name. The stream is not closed.
+   */
+  @Nullable
+  public static KyrieDrawable create(Context context, InputStream inputStream) {
+    try {
+      final KyrieDrawable.Builder builder = KyrieDrawable.builder();
+      InflationUtils.inflate(builder, context, inputStream);
+      return builder.build();
+    } catch (XmlPullParserException | IOException e) {
+      e.printStackTrace();
+      Log.e(TAG, "Error parsing drawable", e);
+      return null;
+    }
+  }
+
+  /**
+   * Creates a {@link KyrieDrawable} from an uncompiled {@link VectorDrawable} or {@link
+   * AnimatedVectorDrawable} XML document. See {@link #create(Context, InputStream)}. The reader is
+   * not closed.
+   */
+  @Nullable
+  public static KyrieDrawable create(Context context, Reader reader) {
+    try {
+      final KyrieDrawable.Builder builder = KyrieDrawable.builder();
+      InflationUtils.inflate(builder, context, reader);
+      return builder.build();
+    } catch (XmlPullParserException | IOException e) {
+      e.printStackTrace();
+      Log.e(TAG, "Error parsing drawable", e);
+      return null;
+    }
+  }
+
+  /**
+   * Creates a {@link KyrieDrawable} from an SVG document. The document is parsed while it is read
+   * from the stream, without compiling it as a resource or holding it in memory, and this method
+   * can be called on any thread. Only shapes, groups, transforms, and fill and stroke properties
+   * are supported; other SVG features are ignored. The stream is not closed.
+   */
+  @Nullable
+  public static KyrieDrawable createFromSvg(Context context, InputStream inputStream) {
+    try {
+      final KyrieDrawable.Builder builder = KyrieDrawable.builder();
+      SvgInflationUtils.inflate(builder, context, inputStream);
+      return builder.build();
+    } catch (XmlPullParserException | IOException e) {
+      e.printStackTrace();
+      Log.e(TAG, "Error parsing SVG", e);
+      return null;
+    }
+  }
+
   @Px private final int width;
   @Px private final int height;
 
@@ -80,12 +199,20 @@ public final class KyrieDrawable extends Drawable implements Animatable {
   @FloatRange(from = 0f)
   private final float viewportHeight;
 
-  @NonNull private final Property<Float> alphaProperty;
+  @NonNull private Property<Float> alphaProperty;
 
-  @NonNull private final PropertyTimeline timeline;
-  @NonNull private final KyrieValueAnimator animator;
+  @NonNull private PropertyTimeline timeline;
+  @NonNull private final KyrieAnimator animator;
   private final List<Node.Layer> childrenLayers = new ArrayList<>();
 
+  // The animations and nodes that the timeline and layers were created from.
+  @NonNull private final List<Animation<?, Float>> alphaAnimations;
+  @NonNull private final List<Node> childrenNodes;
+
+  // Creates a timeline with the animations that are being loaded in the background,
+  // or null if the timeline is complete. Set on the thread that created the drawable.
+  @Nullable private volatile FutureTask<AnimatedTimeline> pendingTimeline;
+
   @IntRange(from = 0, to = 0xff)
   private int alpha = 0xff;
 
@@ -95,13 +222,59 @@ public final class KyrieDrawable extends Drawable implements Animatable {
   @Nullable private ColorFilter colorFilter;
   private boolean isAutoMirrored;
 
+  // A negative value means the default max frame rate should be used.
+  private final float maxFrameRate;
+  private final boolean isAdaptiveFrameRateEnabled;
+
+  /**
+   * Guards the timeline and layers while frames are rendered off the main thread, by the {@link
+   * FrameRenderer} or a {@link KyrieView}.
+   */
+  final Object frameLock = new Object();
+
+  // Renders frames on a worker thread, or null if frames are rendered on the main thread.
+  @Nullable private final FrameRenderer frameRenderer;
+
+  // Renders frames on behalf of the KyrieView that hosts the drawable, if any.
+  @Nullable private FrameHost frameHost;
+
   private final Matrix tempMatrix = new Matrix();
   private final float[] tempMatrixFloats = new float[9];
   private final Rect tempBounds = new Rect();
+  private final RectF tempLayerBounds = new RectF();
   private final PointF viewportScale = new PointF();
+  private final DrawContext drawContext = new DrawContext();
   @Nullable private Bitmap offscreenBitmap;
+  @Nullable private Canvas offscreenCanvas;
   @Nullable private Paint offscreenPaint;
 
+  // The region of the offscreen bitmap that needs to be re-rendered before the
+  // next draw, or the entire bitmap if isFullRedrawRequired is true.
+  private final RectF dirtyBounds = new RectF();
+  private final Rect tempDirtyBounds = new Rect();
+  private final RectF tempDirtyBoundsF = new RectF();
+  private boolean isFullRedrawRequired = true;
+  private float drawnAnimatedAlpha = -1;
+
+  // The largest dimension of the bitmap that the drawable was last drawn from, in pixels.
+  @Px private int drawnBitmapSize;
+
+  // The play time requested by the latest call to seekTo(), or -1 if there is no
+  // pending seek. Pending seeks are applied at the start of the next frame.
+  private long pendingSeekPlayTime = -1;
+
+  private final SharedFrameClock.FrameCallback pendingSeekCallback =
+      new SharedFrameClock.FrameCallback() {
+        @Override
+        public boolean doFrame(long frameTimeMillis) {
+          applyPendingSeek();
+          return false;
+        }
+      };
+
+  private final PointF frameViewportScale = new PointF();
+  @Nullable private Paint framePaint;
+
   private KyrieDrawable(
       @Px int width,
       @Px int height,
@@ -111,21 +284,30 @@ public final class KyrieDrawable extends Drawable implements Animatable {
       List<Node> childrenNodes,
       @Nullable ColorStateList tintList,
       PorterDuff.Mode tintMode,
-      boolean isAutoMirrored) {
+      boolean isAutoMirrored,
+      boolean isSharedFrameClockEnabled,
+      float maxFrameRate,
+      boolean isAdaptiveFrameRateEnabled,
+      boolean isBackgroundRenderingEnabled) {
     this.width = width;
     this.height = height;
     this.viewportWidth = viewportWidth;
     this.viewportHeight = viewportHeight;
     this.isAutoMirrored = isAutoMirrored;
+    this.maxFrameRate = maxFrameRate;
+    this.isAdaptiveFrameRateEnabled = isAdaptiveFrameRateEnabled;
     this.tintList = tintList;
     this.tintMode = tintMode;
     this.tintFilter = createTintFilter();
-    timeline = new PropertyTimeline(this);
-    alphaProperty = timeline.registerAnimatableProperty(alphaAnimations);
-    for (int i = 0, size = childrenNodes.size(); i < size; i++) {
-      childrenLayers.add(childrenNodes.get(i).toLayer(timeline));
-    }
-    animator = new KyrieValueAnimator(this);
+    this.alphaAnimations = alphaAnimations;
+    this.childrenNodes = childrenNodes;
+    final AnimatedTimeline animatedTimeline = new AnimatedTimeline(this);
+    timeline = animatedTimeline.timeline;
+    alphaProperty = animatedTimeline.alphaProperty;
+    childrenLayers.addAll(animatedTimeline.layers);
+    animator =
+        isSharedFrameClockEnabled ? new FrameClockAnimator(this) : new KyrieValueAnimator(this);
+    frameRenderer = isBackgroundRenderingEnabled ? new FrameRenderer(this) : null;
   }
 
   @Px
@@ -232,6 +414,9 @@ public final class KyrieDrawable extends Drawable implements Animatable {
     if (!isVisible()) {
       return;
     }
+    // The drawable is being drawn again, so resume any animation that was
+    // suspended while the drawable couldn't be seen.
+    animator.unsuspend();
     final Rect bounds = tempBounds;
     copyBounds(bounds);
     if (bounds.width() <= 0 || bounds.height() <= 0) {
@@ -269,10 +454,7 @@ public final class KyrieDrawable extends Drawable implements Animatable {
     canvas.translate(bounds.left, bounds.top);
 
     // Handle RTL mirroring.
-    final boolean shouldAutoMirror =
-        isAutoMirrored
-            && DrawableCompat.getLayoutDirection(this) == ViewCompat.LAYOUT_DIRECTION_RTL;
-    if (shouldAutoMirror) {
+    if (shouldAutoMirror()) {
       canvas.translate(bounds.width(), 0);
       canvas.scale(-1f, 1f);
     }
@@ -281,25 +463,24 @@ public final class KyrieDrawable extends Drawable implements Animatable {
     // We use these bounds as the destination rect when drawing the bitmap, so
     // offset to (0, 0);
     bounds.offsetTo(0, 0);
-
-    // Recreate the offscreen bitmap if the dimensions have changed.
-    if (offscreenBitmap == null
-        || scaledWidth != offscreenBitmap.getWidth()
-        || scaledHeight != offscreenBitmap.getHeight()) {
-      offscreenBitmap = Bitmap.createBitmap(scaledWidth, scaledHeight, Bitmap.Config.ARGB_8888);
-    }
-
-    // Clear the offscreen bitmap.
-    offscreenBitmap.eraseColor(Color.TRANSPARENT);
-    viewportScale.set(scaledWidth / viewportWidth, scaledHeight / viewportHeight);
-    final Canvas offscreenCanvas = new Canvas(offscreenBitmap);
-    for (int i = 0, size = childrenLayers.size(); i < size; i++) {
-      childrenLayers.get(i).draw(offscreenCanvas, IDENTITY_MATRIX, viewportScale);
+    drawnBitmapSize = Math.max(scaledWidth, scaledHeight);
+
+    final Bitmap bitmap;
+    if (frameRenderer != null) {
+      // Draw the latest frame rasterized by the worker thread. It is scaled to
+      // fit the bounds until a frame with the new size has been rasterized.
+      final FrameRenderer.Frame frame = frameRenderer.acquireFrame(scaledWidth, scaledHeight);
+      bitmap = frame.getBitmap();
+      drawnAnimatedAlpha = frame.getAnimatedAlpha();
+    } else {
+      renderOffscreenBitmap(scaledWidth, scaledHeight);
+      bitmap = offscreenBitmap;
+      drawnAnimatedAlpha = alphaProperty.getAnimatedValue();
     }
 
-    // Draw the offscreen bitmap.
+    // Draw the bitmap.
     Paint paint = null;
-    final float alphaFloat = (this.alpha / 255f) * alphaProperty.getAnimatedValue();
+    final float alphaFloat = (this.alpha / 255f) * drawnAnimatedAlpha;
     final int alphaInt = Math.round(alphaFloat * 255f);
     if (alphaInt < 0xff || cf != null) {
       if (offscreenPaint == null) {
@@ -310,10 +491,213 @@ public final class KyrieDrawable extends Drawable implements Animatable {
       offscreenPaint.setColorFilter(cf);
       paint = offscreenPaint;
     }
-    canvas.drawBitmap(offscreenBitmap, null, bounds, paint);
+    canvas.drawBitmap(bitmap, null, bounds, paint);
     canvas.restoreToCount(saveCount);
   }
 
+  /** Re-renders the parts of the offscreen bitmap that have changed since the last draw. */
+  private void renderOffscreenBitmap(@Px int scaledWidth, @Px int scaledHeight) {
+    // Recreate the offscreen bitmap if the dimensions have changed.
+    if (offscreenBitmap == null
+        || scaledWidth != offscreenBitmap.getWidth()
+        || scaledHeight != offscreenBitmap.getHeight()) {
+      offscreenBitmap = Bitmap.createBitmap(scaledWidth, scaledHeight, Bitmap.Config.ARGB_8888);
+      offscreenCanvas = new Canvas(offscreenBitmap);
+      isFullRedrawRequired = true;
+    }
+    final float viewportScaleX = scaledWidth / viewportWidth;
+    final float viewportScaleY = scaledHeight / viewportHeight;
+    if (!viewportScale.equals(viewportScaleX, viewportScaleY)) {
+      viewportScale.set(viewportScaleX, viewportScaleY);
+      isFullRedrawRequired = true;
+    }
+
+    if (isFullRedrawRequired) {
+      offscreenBitmap.eraseColor(Color.TRANSPARENT);
+      renderLayers(offscreenCanvas, null);
+    } else if (!dirtyBounds.isEmpty()) {
+      // Outset the dirty region by a pixel to account for anti-aliasing.
+      dirtyBounds.roundOut(tempDirtyBounds);
+      tempDirtyBounds.inset(-1, -1);
+      renderLayers(offscreenCanvas, tempDirtyBounds);
+    }
+    isFullRedrawRequired = false;
+    dirtyBounds.setEmpty();
+  }
+
+  private void renderLayers(Canvas canvas, @Nullable Rect clipBounds) {
+    // Clip paths at the root of the tree modify the canvas' clip, so always
+    // restore the offscreen canvas to its original state when we are done.
+    final int saveCount = canvas.save();
+    if (clipBounds != null) {
+      canvas.clipRect(clipBounds);
+      canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+    }
+    for (int i = 0, size = childrenLayers.size(); i < size; i++) {
+      childrenLayers.get(i).draw(canvas, IDENTITY_MATRIX, viewportScale, drawContext);
+    }
+    canvas.restoreToCount(saveCount);
+  }
+
+  private boolean shouldAutoMirror() {
+    return isAutoMirrored
+        && DrawableCompat.getLayoutDirection(this) == ViewCompat.LAYOUT_DIRECTION_RTL;
+  }
+
+  /**
+   * Called by the {@link PropertyTimeline} after one or more of its properties have changed.
+   * Accumulates the region of the offscreen bitmap that needs to be re-rendered and invalidates
+   * the drawable.
+   */
+  void onTimelineChanged() {
+    if (offscreenBitmap != null && !isFullRedrawRequired) {
+      for (int i = 0, size = childrenLayers.size(); i < size; i++) {
+        childrenLayers
+            .get(i)
+            .getBounds(IDENTITY_MATRIX, viewportScale, tempLayerBounds, dirtyBounds, drawContext);
+      }
+    }
+    invalidateSelf();
+  }
+
+  @NonNull
+  @Override
+  public Rect getDirtyBounds() {
+    final Rect bounds = getBounds();
+    if (frameRenderer != null
+        || offscreenBitmap == null
+        || isFullRedrawRequired
+        || drawnAnimatedAlpha != alphaProperty.getAnimatedValue()) {
+      return bounds;
+    }
+    if (dirtyBounds.isEmpty()) {
+      tempDirtyBounds.setEmpty();
+      return tempDirtyBounds;
+    }
+    // Map the dirty region from offscreen bitmap coordinates to drawable coordinates.
+    final float scaleX = bounds.width() / (float) offscreenBitmap.getWidth();
+    final float scaleY = bounds.height() / (float) offscreenBitmap.getHeight();
+    float left = dirtyBounds.left * scaleX;
+    float right = dirtyBounds.right * scaleX;
+    if (shouldAutoMirror()) {
+      final float mirroredLeft = bounds.width() - right;
+      right = bounds.width() - left;
+      left = mirroredLeft;
+    }
+    tempDirtyBoundsF.set(
+        bounds.left + left,
+        bounds.top + dirtyBounds.top * scaleY,
+        bounds.left + right,
+        bounds.top + dirtyBounds.bottom * scaleY);
+    tempDirtyBoundsF.roundOut(tempDirtyBounds);
+    // Outset the dirty region to account for anti-aliasing and bitmap filtering.
+    tempDirtyBounds.inset(-1, -1);
+    if (!tempDirtyBounds.intersect(bounds)) {
+      tempDirtyBounds.setEmpty();
+    }
+    return tempDirtyBounds;
+  }
+
+  // <editor-fold desc="Progressive inflation">
+
+  /**
+   * Applies the given animations to the drawable's nodes, and creates a timeline and layers from
+   * them, on a worker thread. The drawable keeps showing its static layers until the new timeline
+   * has been swapped in on the main thread, or until something needs it and waits for it.
+   */
+  private void loadAnimations(final InflationUtils.PendingAnimations animations) {
+    final Handler mainHandler = new Handler(Looper.getMainLooper());
+    final Runnable awaitAnimationsRunnable =
+        new Runnable() {
+          @Override
+          public void run() {
+            awaitAnimations();
+          }
+        };
+    pendingTimeline =
+        new FutureTask<AnimatedTimeline>(
+            new Callable<AnimatedTimeline>() {
+              @Override
+              public AnimatedTimeline call() throws InterruptedIOException {
+                animations.apply();
+                return new AnimatedTimeline(KyrieDrawable.this);
+              }
+            }) {
+          @Override
+          protected void done() {
+            mainHandler.post(awaitAnimationsRunnable);
+          }
+        };
+    InflationUtils.getAnimatorExecutor().execute(pendingTimeline);
+  }
+
+  /**
+   * Swaps in the timeline created by {@link #loadAnimations}, waiting for the animations to load if
+   * necessary. Does nothing if the timeline is already complete. Must be called on the main thread.
+   */
+  private void awaitAnimations() {
+    final FutureTask<AnimatedTimeline> task = pendingTimeline;
+    if (task == null) {
+      return;
+    }
+    final AnimatedTimeline animatedTimeline = getLoadedTimeline(task);
+    if (!task.isDone()) {
+      // Interrupted, so keep the static timeline for now, and try again the next time it is needed.
+      return;
+    }
+    pendingTimeline = null;
+    if (animatedTimeline == null) {
+      return;
+    }
+    synchronized (frameLock) {
+      timeline = animatedTimeline.timeline;
+      alphaProperty = animatedTimeline.alphaProperty;
+      childrenLayers.clear();
+      childrenLayers.addAll(animatedTimeline.layers);
+    }
+    animator.onTotalDurationChanged();
+    redrawCurrentFrame();
+  }
+
+  /**
+   * Waits for the timeline created by {@link #loadAnimations}, returning null if it couldn't be
+   * created or if the thread was interrupted. Can be called on any thread.
+   */
+  @Nullable
+  private static AnimatedTimeline getLoadedTimeline(FutureTask<AnimatedTimeline> task) {
+    // If no worker has started loading the animations yet, load them on this thread
+    // instead of waiting. This does nothing if the task has already been started.
+    task.run();
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      Log.e(TAG, "Interrupted while loading animations", e);
+      return null;
+    } catch (ExecutionException e) {
+      Log.e(TAG, "Error loading animations", e.getCause());
+      return null;
+    }
+  }
+
+  /** A timeline, along with the drawable's properties and layers that are registered with it. */
+  private static final class AnimatedTimeline {
+    @NonNull final PropertyTimeline timeline;
+    @NonNull final Property<Float> alphaProperty;
+    final List<Node.Layer> layers = new ArrayList<>();
+
+    AnimatedTimeline(KyrieDrawable drawable) {
+      timeline = new PropertyTimeline(drawable);
+      alphaProperty = timeline.registerAnimatableProperty(drawable.alphaAnimations);
+      final List<Node> childrenNodes = drawable.childrenNodes;
+      for (int i = 0, size = childrenNodes.size(); i < size; i++) {
+        layers.add(childrenNodes.get(i).toLayer(timeline));
+      }
+    }
+  }
+
+  // </editor-fold>
+
   // <editor-fold desc="Animation">
 
   /**
@@ -321,6 +705,7 @@ public final class KyrieDrawable extends Drawable implements Animatable {
    * {@link Animation#INFINITE} if the duration is infinite.
    */
   public long getTotalDuration() {
+    awaitAnimations();
     return timeline.getTotalDuration();
   }
 
@@ -330,7 +715,7 @@ public final class KyrieDrawable extends Drawable implements Animatable {
    */
   @IntRange(from = 0L)
   public long getCurrentPlayTime() {
-    return animator.getCurrentPlayTime();
+    return pendingSeekPlayTime >= 0 ? pendingSeekPlayTime : animator.getCurrentPlayTime();
   }
 
   /**
@@ -338,17 +723,270 @@ public final class KyrieDrawable extends Drawable implements Animatable {
    * 0 and the total duration of the animation, including any repetition.
    */
   public void setCurrentPlayTime(@IntRange(from = 0L) long currentPlayTime) {
-    currentPlayTime = Math.max(0, currentPlayTime);
+    pendingSeekPlayTime = -1;
+    animator.setCurrentPlayTime(clampPlayTime(currentPlayTime));
+  }
+
+  /**
+   * Seeks the animation to the specified point in time, like {@link #setCurrentPlayTime}, but
+   * defers the update until the start of the next frame. Only the latest requested time is
+   * applied, so seeking many times within a single frame (e.g. while the user drags a {@link
+   * android.widget.SeekBar}) evaluates the animation and notifies {@link Listener}s at most once
+   * per frame. Listeners are notified from a frame callback, outside of the view hierarchy's draw
+   * pass. {@link #getCurrentPlayTime()} returns the requested time immediately.
+   */
+  public void seekTo(@IntRange(from = 0L) long playTime) {
+    playTime = clampPlayTime(playTime);
+    if (pendingSeekPlayTime < 0 && playTime == animator.getCurrentPlayTime()) {
+      return;
+    }
+    pendingSeekPlayTime = playTime;
+    SharedFrameClock.getInstance().addCallback(pendingSeekCallback);
+  }
+
+  /** Applies the latest play time requested by {@link #seekTo}, if any. */
+  private void applyPendingSeek() {
+    final long playTime = pendingSeekPlayTime;
+    if (playTime < 0) {
+      return;
+    }
+    pendingSeekPlayTime = -1;
+    animator.setCurrentPlayTime(playTime);
+  }
+
+  @IntRange(from = 0L)
+  private long clampPlayTime(long playTime) {
+    playTime = Math.max(0, playTime);
     final long totalDuration = getTotalDuration();
     if (totalDuration != Animation.INFINITE) {
-      currentPlayTime = Math.min(totalDuration, currentPlayTime);
+      playTime = Math.min(totalDuration, playTime);
+    }
+    return playTime;
+  }
+
+  /**
+   * Renders a frame for each of the given play times into the bitmaps provided by a {@link
+   * FrameSink}. Each frame is scaled to fill its bitmap. Frames are evaluated and rendered
+   * directly, without going through the animator: the drawable's current play time, running
+   * animation, and listeners are unaffected, and the drawable is not invalidated. The output only
+   * depends on the given play times, which makes this useful for exporting frames, building frame
+   * caches, and benchmarking.
+   *
+   * <p>The frames are evaluated with the drawable's own timeline and layers, which are also used to
+   * draw the drawable, so this method must be called on the main thread. The lock is still held
+   * while rendering, because frames may be rendered concurrently by the {@link FrameRenderer} or a
+   * {@link KyrieView}.
+   *
+   * @param playTimes The play times at which to render frames.
+   * @param sink The sink that provides the target bitmaps and receives the rendered frames.
+   */
+  @MainThread
+  public void renderFrames(long[] playTimes, FrameSink sink) {
+    awaitAnimations();
+    synchronized (frameLock) {
+      final long currentPlayTime = timeline.getCurrentPlayTime();
+      try {
+        for (int i = 0; i < playTimes.length; i++) {
+          final long playTime = Math.max(0, playTimes[i]);
+          final Bitmap bitmap = sink.getFrameBitmap(i, playTime);
+          timeline.setCurrentPlayTimeSilently(playTime);
+          bitmap.eraseColor(Color.TRANSPARENT);
+          final Canvas canvas = new Canvas(bitmap);
+          drawFrame(canvas, bitmap.getWidth(), bitmap.getHeight());
+          sink.onFrameRendered(i, playTime, bitmap);
+        }
+      } finally {
+        // Restore the drawable's own play time. The layers no longer match the
+        // contents of the offscreen bitmap, so redraw it in full the next time.
+        timeline.setCurrentPlayTimeSilently(currentPlayTime);
+        isFullRedrawRequired = true;
+      }
+    }
+  }
+
+  private void drawFrame(Canvas canvas, @Px int width, @Px int height) {
+    final ColorFilter cf = colorFilter == null ? tintFilter : colorFilter;
+    final int alphaInt = Math.round((alpha / 255f) * alphaProperty.getAnimatedValue() * 255f);
+    final int saveCount;
+    if (alphaInt < 0xff || cf != null) {
+      if (framePaint == null) {
+        framePaint = new Paint();
+      }
+      framePaint.setAlpha(alphaInt);
+      framePaint.setColorFilter(cf);
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+        saveCount = canvas.saveLayer(0, 0, width, height, framePaint);
+      } else {
+        @SuppressWarnings("deprecation")
+        final int count = canvas.saveLayer(0, 0, width, height, framePaint, Canvas.ALL_SAVE_FLAG);
+        saveCount = count;
+      }
+    } else {
+      saveCount = canvas.save();
+    }
+    drawLayers(canvas, width, height);
+    canvas.restoreToCount(saveCount);
+  }
+
+  /** Draws the layers, scaled to fill a canvas with the given size. */
+  private void drawLayers(Canvas canvas, @Px int width, @Px int height) {
+    frameViewportScale.set(width / viewportWidth, height / viewportHeight);
+    for (int i = 0, size = childrenLayers.size(); i < size; i++) {
+      childrenLayers.get(i).draw(canvas, IDENTITY_MATRIX, frameViewportScale, drawContext);
+    }
+  }
+
+  /**
+   * Evaluates the timeline at the given play time and rasterizes the layers into the given frame.
+   * Called by the {@link FrameRenderer} while holding its lock, usually on its worker thread.
+   */
+  void renderFrame(FrameRenderer.Frame frame, long playTime, @Px int width, @Px int height) {
+    timeline.setCurrentPlayTimeSilently(playTime);
+    drawLayers(frame.beginFrame(width, height), width, height);
+    frame.setAnimatedAlpha(alphaProperty.getAnimatedValue());
+  }
+
+  /**
+   * Evaluates the timeline at the given play time and draws a frame, scaled to fill a canvas with
+   * the given size. Called by a {@link KyrieView} on its render thread.
+   */
+  void drawFrameAt(Canvas canvas, long playTime, @Px int width, @Px int height) {
+    synchronized (frameLock) {
+      timeline.setCurrentPlayTimeSilently(playTime);
+      drawFrame(canvas, width, height);
+    }
+  }
+
+  /**
+   * Hands the play times produced by the animator to the given host, which draws the frames itself
+   * using {@link #drawFrameAt}, instead of applying them to the timeline. Passing null makes the
+   * drawable render its own frames again. Must be called on the main thread.
+   */
+  void setFrameHost(@Nullable FrameHost frameHost) {
+    if (this.frameHost == frameHost) {
+      return;
+    }
+    this.frameHost = frameHost;
+    redrawCurrentFrame();
+  }
+
+  /** Draws the frame at the animator's current play time again, from scratch. */
+  private void redrawCurrentFrame() {
+    final long currentPlayTime = animator.getCurrentPlayTime();
+    if (frameHost != null) {
+      frameHost.requestFrame(currentPlayTime);
+    } else if (frameRenderer != null) {
+      frameRenderer.requestFrame(currentPlayTime);
+    } else {
+      synchronized (frameLock) {
+        timeline.setCurrentPlayTimeSilently(currentPlayTime);
+      }
+      isFullRedrawRequired = true;
+      invalidateSelf();
+    }
+  }
+
+  /** Renders the frames of a drawable that is hosted by a {@link KyrieView}. */
+  interface FrameHost {
+    /** Requests that a frame be drawn at the given play time. Called on the main thread. */
+    void requestFrame(long playTime);
+  }
+
+  /** Applies a play time produced by the animator to the timeline. */
+  private void setTimelinePlayTime(long playTime) {
+    if (frameHost != null) {
+      frameHost.requestFrame(playTime);
+    } else if (frameRenderer != null) {
+      frameRenderer.requestFrame(playTime);
+    } else {
+      timeline.setCurrentPlayTime(playTime);
+    }
+  }
+
+  /** Provides target bitmaps for, and receives the frames rendered by, {@link #renderFrames}. */
+  public interface FrameSink {
+    /**
+     * Returns the bitmap to render the frame at the given index into. The bitmap is cleared before
+     * the frame is rendered.
+     *
+     * @param frameIndex The index of the frame's play time in the array of requested play times.
+     * @param playTime The play time at which the frame will be rendered.
+     */
+    @NonNull
+    Bitmap getFrameBitmap(int frameIndex, long playTime);
+
+    /**
+     * Called after a frame has been rendered into its bitmap.
+     *
+     * @param frameIndex The index of the frame's play time in the array of requested play times.
+     * @param playTime The play time at which the frame was rendered.
+     * @param bitmap The bitmap containing the rendered frame.
+     */
+    void onFrameRendered(int frameIndex, long playTime, Bitmap bitmap);
+  }
+
+  /**
+   * Returns the play time that a running animation should apply for a frame at the given play
+   * time. If the frame rate is capped, the play time is quantized to the start of the current
+   * frame interval, so that the timeline is only updated (and the drawable only invalidated) once
+   * per interval. The end of the animation is never quantized, so the final frame is always
+   * applied.
+   */
+  private long getFramePlayTime(long playTime) {
+    final long totalDuration = timeline.getTotalDuration();
+    if (totalDuration != Animation.INFINITE && playTime >= totalDuration) {
+      return playTime;
     }
-    animator.setCurrentPlayTime(currentPlayTime);
+    float maxFrameRate = this.maxFrameRate < 0 ? defaultMaxFrameRate : this.maxFrameRate;
+    if (isAdaptiveFrameRateEnabled && drawnBitmapSize > 0) {
+      final float density = Resources.getSystem().getDisplayMetrics().density;
+      final float sizeDp = drawnBitmapSize / density;
+      final float adaptiveFrameRate =
+          sizeDp <= TINY_DRAWABLE_SIZE_DP
+              ? TINY_DRAWABLE_MAX_FRAME_RATE
+              : sizeDp <= SMALL_DRAWABLE_SIZE_DP
+                  ? SMALL_DRAWABLE_MAX_FRAME_RATE
+                  : UNLIMITED_FRAME_RATE;
+      if (adaptiveFrameRate != UNLIMITED_FRAME_RATE
+          && (maxFrameRate == UNLIMITED_FRAME_RATE || adaptiveFrameRate < maxFrameRate)) {
+        maxFrameRate = adaptiveFrameRate;
+      }
+    }
+    if (maxFrameRate == UNLIMITED_FRAME_RATE) {
+      return playTime;
+    }
+    final long frameIntervalMillis = Math.max(1, Math.round(1000 / maxFrameRate));
+    return playTime - playTime % frameIntervalMillis;
   }
 
-  /** Starts the animation. */
+  @Override
+  public boolean setVisible(boolean visible, boolean restart) {
+    final boolean changed = super.setVisible(visible, restart);
+    if (!visible) {
+      animator.suspend();
+    } else if (getCallback() != null) {
+      animator.unsuspend();
+    }
+    return changed;
+  }
+
+  /**
+   * Returns true if the drawable can't currently be seen, in which case a running animation stops
+   * producing frames until the drawable becomes visible again.
+   */
+  private boolean shouldSuspendAnimation() {
+    return !isVisible() || getCallback() == null;
+  }
+
+  /**
+   * Starts the animation. The animation is automatically suspended while the drawable is invisible
+   * or has no {@link Callback}, and continues from the position it would have reached had it kept
+   * running once the drawable is visible again.
+   */
   @Override
   public void start() {
+    awaitAnimations();
+    pendingSeekPlayTime = -1;
     animator.start();
   }
 
@@ -363,14 +1001,17 @@ public final class KyrieDrawable extends Drawable implements Animatable {
     animator.pause();
   }
 
-  /** Resumes the animation. */
+  /** Resumes the animation from its current play time, including any pending seek. */
   public void resume() {
+    if (pendingSeekPlayTime >= 0) {
+      setCurrentPlayTime(pendingSeekPlayTime);
+    }
     animator.resume();
   }
 
   /** Returns true if the animation has been started. */
   public boolean isStarted() {
-    return animator.isStarted();
+    return animator.isStarted() || animator.isSuspended();
   }
 
   /** Returns true if the animation has been paused. */
@@ -381,7 +1022,7 @@ public final class KyrieDrawable extends Drawable implements Animatable {
   /** Returns true if the animation is running. */
   @Override
   public boolean isRunning() {
-    return animator.isRunning();
+    return animator.isRunning() || animator.isSuspended();
   }
 
   /** Adds a {@link Listener} to this {@link KyrieDrawable}'s set of listeners. */
@@ -475,10 +1116,59 @@ public final class KyrieDrawable extends Drawable implements Animatable {
     public void onAnimationEnd(KyrieDrawable drawable) {}
   }
 
-  private static class KyrieValueAnimator extends ValueAnimator {
+  /** The internal interface used to drive the drawable's {@link PropertyTimeline}. */
+  private interface KyrieAnimator {
+    void start();
+
+    void cancel();
+
+    void pause();
+
+    void resume();
+
+    boolean isStarted();
+
+    boolean isPaused();
+
+    boolean isRunning();
+
+    /**
+     * Stops producing frames without notifying listeners, remembering when the animation was
+     * suspended. Does nothing if the animation isn't running.
+     */
+    void suspend();
+
+    /**
+     * Starts producing frames again at the position the animation would have reached had it never
+     * been suspended. Does nothing if the animation isn't suspended.
+     */
+    void unsuspend();
+
+    boolean isSuspended();
+
+    /** Called after the drawable's timeline has been replaced by one with a new total duration. */
+    void onTotalDurationChanged();
+
+    long getCurrentPlayTime();
+
+    void setCurrentPlayTime(long currentPlayTime);
+
+    void addListener(Listener listener);
+
+    void removeListener(Listener listener);
+
+    void clearListeners();
+  }
+
+  private static class KyrieValueAnimator extends ValueAnimator implements KyrieAnimator {
     @NonNull private final KyrieDrawable drawable;
     private final List<Listener> listeners = new ArrayList<>();
     private boolean isPaused;
+    private boolean isSuspended;
+    private long suspendedUptimeMillis;
+
+    // True while an explicit seek is applied, which is never quantized to the frame rate.
+    private boolean isSeeking;
 
     @IntRange(from = 0L)
     private long currentPlayTime;
@@ -511,25 +1201,82 @@ public final class KyrieDrawable extends Drawable implements Animatable {
       drawable = d;
       setFloatValues(0f, 1f);
       setInterpolator(new LinearInterpolator());
-      final PropertyTimeline timeline = drawable.timeline;
       addListener(listenerAdapter);
       addUpdateListener(
           new AnimatorUpdateListener() {
             @Override
             public void onAnimationUpdate(ValueAnimator animation) {
-              currentPlayTime = animation.getCurrentPlayTime();
-              timeline.setCurrentPlayTime(currentPlayTime);
+              if (isRunning() && drawable.shouldSuspendAnimation()) {
+                suspend();
+                return;
+              }
+              long playTime = animation.getCurrentPlayTime();
+              if (isRunning() && !isSeeking) {
+                // Skip frames that don't advance the (possibly frame rate capped) play time.
+                playTime = drawable.getFramePlayTime(playTime);
+                if (playTime == currentPlayTime) {
+                  return;
+                }
+              }
+              currentPlayTime = playTime;
+              drawable.setTimelinePlayTime(currentPlayTime);
               for (int i = 0, size = listeners.size(); i < size; i++) {
                 listeners.get(i).onAnimationUpdate(drawable);
               }
             }
           });
-      final long totalDuration = timeline.getTotalDuration();
+      onTotalDurationChanged();
+    }
+
+    @Override
+    public void onTotalDurationChanged() {
+      final long totalDuration = drawable.timeline.getTotalDuration();
       setDuration(totalDuration == Animation.INFINITE ? Long.MAX_VALUE : totalDuration);
     }
 
+    @Override
+    public void start() {
+      isSuspended = false;
+      super.start();
+    }
+
+    @Override
+    public void setCurrentPlayTime(long playTime) {
+      isSeeking = true;
+      try {
+        super.setCurrentPlayTime(playTime);
+      } finally {
+        isSeeking = false;
+      }
+    }
+
+    @Override
+    public void cancel() {
+      if (isSuspended) {
+        // The underlying animator has already been canceled, so notify the listeners directly.
+        isSuspended = false;
+        for (int i = 0, size = listeners.size(); i < size; i++) {
+          listeners.get(i).onAnimationCancel(drawable);
+        }
+        for (int i = 0, size = listeners.size(); i < size; i++) {
+          listeners.get(i).onAnimationEnd(drawable);
+        }
+        return;
+      }
+      super.cancel();
+    }
+
     @Override
     public void pause() {
+      if (isSuspended) {
+        // Pause at the position where the animation was suspended.
+        isSuspended = false;
+        isPaused = true;
+        for (int i = 0, size = listeners.size(); i < size; i++) {
+          listeners.get(i).onAnimationPause(drawable);
+        }
+        return;
+      }
       if (isStarted() && !isPaused) {
         isPaused = true;
         final long currentPlayTime = this.currentPlayTime;
@@ -570,6 +1317,32 @@ public final class KyrieDrawable extends Drawable implements Animatable {
       return isPaused;
     }
 
+    @Override
+    public void suspend() {
+      if (isRunning() && !isSuspended) {
+        cancelWithoutNotify();
+        isSuspended = true;
+        suspendedUptimeMillis = SystemClock.uptimeMillis();
+      }
+    }
+
+    @Override
+    public void unsuspend() {
+      if (isSuspended) {
+        final long elapsedMillis = SystemClock.uptimeMillis() - suspendedUptimeMillis;
+        final long currentPlayTime = Math.min(this.currentPlayTime + elapsedMillis, getDuration());
+        startWithoutNotify();
+        // If the animation should have finished while it was suspended, it will
+        // end (and notify its listeners) on the next frame.
+        setCurrentPlayTime(currentPlayTime);
+      }
+    }
+
+    @Override
+    public boolean isSuspended() {
+      return isSuspended;
+    }
+
     public void addListener(Listener listener) {
       listeners.add(listener);
     }
@@ -583,6 +1356,193 @@ public final class KyrieDrawable extends Drawable implements Animatable {
     }
   }
 
+  /**
+   * An animator that is driven by the {@link SharedFrameClock} instead of a {@link ValueAnimator},
+   * so that all running drawables that opt in are advanced from a single frame callback.
+   */
+  private static final class FrameClockAnimator
+      implements KyrieAnimator, SharedFrameClock.FrameCallback {
+    @NonNull private final KyrieDrawable drawable;
+    private final List<Listener> listeners = new ArrayList<>();
+    private long totalDuration;
+    private boolean isStarted;
+    private boolean isPaused;
+    private boolean isSuspended;
+
+    // The frame time that corresponds to a play time of 0, or -1 if the animator
+    // should be re-anchored to the current play time on the next frame.
+    private long startTime = -1;
+
+    @IntRange(from = 0L)
+    private long currentPlayTime;
+
+    FrameClockAnimator(KyrieDrawable drawable) {
+      this.drawable = drawable;
+      totalDuration = drawable.timeline.getTotalDuration();
+    }
+
+    @Override
+    public void onTotalDurationChanged() {
+      totalDuration = drawable.timeline.getTotalDuration();
+    }
+
+    @Override
+    public void start() {
+      isStarted = true;
+      isPaused = false;
+      isSuspended = false;
+      for (int i = 0, size = listeners.size(); i < size; i++) {
+        listeners.get(i).onAnimationStart(drawable);
+      }
+      setCurrentPlayTime(0);
+      SharedFrameClock.getInstance().addCallback(this);
+    }
+
+    @Override
+    public void cancel() {
+      if (!isStarted) {
+        return;
+      }
+      isStarted = false;
+      isPaused = false;
+      isSuspended = false;
+      SharedFrameClock.getInstance().removeCallback(this);
+      for (int i = 0, size = listeners.size(); i < size; i++) {
+        listeners.get(i).onAnimationCancel(drawable);
+      }
+      for (int i = 0, size = listeners.size(); i < size; i++) {
+        listeners.get(i).onAnimationEnd(drawable);
+      }
+    }
+
+    @Override
+    public void pause() {
+      if (isStarted() && !isPaused) {
+        // If the animation is suspended, it pauses at the position where it was suspended.
+        isPaused = true;
+        isSuspended = false;
+        SharedFrameClock.getInstance().removeCallback(this);
+        for (int i = 0, size = listeners.size(); i < size; i++) {
+          listeners.get(i).onAnimationPause(drawable);
+        }
+      }
+    }
+
+    @Override
+    public void resume() {
+      if (isPaused) {
+        isPaused = false;
+        startTime = -1;
+        SharedFrameClock.getInstance().addCallback(this);
+        for (int i = 0, size = listeners.size(); i < size; i++) {
+          listeners.get(i).onAnimationResume(drawable);
+        }
+      }
+    }
+
+    @Override
+    public boolean doFrame(long frameTimeMillis) {
+      if (startTime < 0) {
+        startTime = frameTimeMillis - currentPlayTime;
+      }
+      if (drawable.shouldSuspendAnimation()) {
+        suspend();
+        return false;
+      }
+      long playTime = Math.max(0, frameTimeMillis - startTime);
+      final boolean isEnded = totalDuration != Animation.INFINITE && playTime >= totalDuration;
+      if (isEnded) {
+        playTime = totalDuration;
+      }
+      // Skip frames that don't advance the (possibly frame rate capped) play time.
+      playTime = drawable.getFramePlayTime(playTime);
+      if (playTime != currentPlayTime) {
+        updateCurrentPlayTime(playTime);
+      }
+      if (isEnded) {
+        isStarted = false;
+        for (int i = 0, size = listeners.size(); i < size; i++) {
+          listeners.get(i).onAnimationEnd(drawable);
+        }
+      }
+      // A listener may have restarted, paused, or canceled the animation.
+      return isRunning();
+    }
+
+    @Override
+    public void suspend() {
+      if (isRunning() && !isSuspended) {
+        isSuspended = true;
+        SharedFrameClock.getInstance().removeCallback(this);
+      }
+    }
+
+    @Override
+    public void unsuspend() {
+      if (isSuspended) {
+        // The start time is left untouched, so the next frame will be at the
+        // position the animation would have reached had it kept running.
+        isSuspended = false;
+        SharedFrameClock.getInstance().addCallback(this);
+      }
+    }
+
+    @Override
+    public boolean isSuspended() {
+      return isSuspended;
+    }
+
+    // Paused animators report that they are not started, matching KyrieValueAnimator.
+    @Override
+    public boolean isStarted() {
+      return isStarted && !isPaused;
+    }
+
+    @Override
+    public boolean isPaused() {
+      return isPaused;
+    }
+
+    @Override
+    public boolean isRunning() {
+      return isStarted && !isPaused;
+    }
+
+    @Override
+    public long getCurrentPlayTime() {
+      return currentPlayTime;
+    }
+
+    @Override
+    public void setCurrentPlayTime(long currentPlayTime) {
+      startTime = -1;
+      updateCurrentPlayTime(currentPlayTime);
+    }
+
+    private void updateCurrentPlayTime(long currentPlayTime) {
+      this.currentPlayTime = currentPlayTime;
+      drawable.setTimelinePlayTime(currentPlayTime);
+      for (int i = 0, size = listeners.size(); i < size; i++) {
+        listeners.get(i).onAnimationUpdate(drawable);
+      }
+    }
+
+    @Override
+    public void addListener(Listener listener) {
+      listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(Listener listener) {
+      listeners.remove(listener);
+    }
+
+    @Override
+    public void clearListeners() {
+      listeners.clear();
+    }
+  }
+
   // </editor-fold>
 
   // <editor-fold desc="Builder">
@@ -606,6 +1566,10 @@ public final class KyrieDrawable extends Drawable implements Animatable {
     private boolean isAutoMirrored;
     @Nullable private ColorStateList tintList;
     @NonNull private PorterDuff.Mode tintMode = DEFAULT_TINT_MODE;
+    private boolean isSharedFrameClockEnabled;
+    private float maxFrameRate = -1;
+    private boolean isAdaptiveFrameRateEnabled;
+    private boolean isBackgroundRenderingEnabled;
 
     private Builder() {}
 
@@ -687,6 +1651,55 @@ public final class KyrieDrawable extends Drawable implements Animatable {
       return this;
     }
 
+    // Frame clock.
+
+    /**
+     * If true, the drawable's animation will be driven by a frame clock that is shared with all
+     * other running {@link KyrieDrawable}s that enable this option, instead of by its own {@link
+     * ValueAnimator}. This reduces per-frame overhead when many drawables animate at the same time.
+     * Defaults to false.
+     */
+    public final Builder sharedFrameClock(boolean isSharedFrameClockEnabled) {
+      this.isSharedFrameClockEnabled = isSharedFrameClockEnabled;
+      return this;
+    }
+
+    // Frame rate.
+
+    /**
+     * Caps the rate at which a running animation updates the drawable, e.g. 15, 24, or 30 frames
+     * per second for slow ambient animations. Use {@link #UNLIMITED_FRAME_RATE} to update on every
+     * frame. Defaults to the value set by {@link KyrieDrawable#setDefaultMaxFrameRate(float)}.
+     */
+    public final Builder maxFrameRate(@FloatRange(from = 0f) float maxFrameRate) {
+      this.maxFrameRate = Math.max(0f, maxFrameRate);
+      return this;
+    }
+
+    /**
+     * If true, the frame rate is automatically lowered for drawables that are small on screen (30
+     * fps at 48dp or less, and 15 fps at 24dp or less), in addition to any cap set by {@link
+     * #maxFrameRate(float)}. Defaults to false.
+     */
+    public final Builder adaptiveFrameRate(boolean isAdaptiveFrameRateEnabled) {
+      this.isAdaptiveFrameRateEnabled = isAdaptiveFrameRateEnabled;
+      return this;
+    }
+
+    // Background rendering.
+
+    /**
+     * If true, the drawable's animation is evaluated and its frames are rasterized on a worker
+     * thread, and the drawable only draws the bitmap of the most recently completed frame. This
+     * frees up the main thread for large drawables or drawables with expensive path morphs or trim
+     * paths, at the cost of drawing each frame slightly later and of keeping up to three bitmaps in
+     * memory. Defaults to false.
+     */
+    public final Builder backgroundRendering(boolean isBackgroundRenderingEnabled) {
+      this.isBackgroundRenderingEnabled = isBackgroundRenderingEnabled;
+      return this;
+    }
+
     // Children.
 
     public final Builder child(Node node) {
@@ -726,7 +1739,11 @@ public final class KyrieDrawable extends Drawable implements Animatable {
           children,
           tintList,
           tintMode,
-          isAutoMirrored);
+          isAutoMirrored,
+          isSharedFrameClockEnabled,
+          maxFrameRate,
+          isAdaptiveFrameRateEnabled,
+          isBackgroundRenderingEnabled);
     }
   }
 
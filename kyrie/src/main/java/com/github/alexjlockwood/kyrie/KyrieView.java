@@ -0,0 +1,300 @@
+package com.github.alexjlockwood.kyrie;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.SurfaceTexture;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.TextureView;
+import android.view.View;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link TextureView} that renders a {@link KyrieDrawable} on its own render thread, directly to
+ * the view's surface, instead of during the view hierarchy's draw pass. This keeps large, always
+ * animating drawables from contributing to the main thread's frame time.
+ *
+ * <p>The animation is still controlled through the drawable's own API (e.g. {@link
+ * KyrieDrawable#start()}, {@link KyrieDrawable#pause()}, {@link KyrieDrawable#resume()}, and {@link
+ * KyrieDrawable#seekTo(long)}), which must be called on the main thread. The drawable's animator
+ * only hands each new play time to the render thread, which evaluates the timeline and draws the
+ * frame at its next vsync. While a drawable is hosted by a {@link KyrieView}, it shouldn't be drawn
+ * anywhere else.
+ *
+ * <p>The drawable is scaled to fit the view while keeping its intrinsic aspect ratio, and is
+ * centered in it, like an {@link android.widget.ImageView} with its default {@code FIT_CENTER}
+ * scale type.
+ */
+public class KyrieView extends TextureView implements TextureView.SurfaceTextureListener {
+  @Nullable private KyrieDrawable drawable;
+  @Nullable private Handler renderHandler;
+  @Nullable private HandlerThread renderThread;
+  @NonNull private final FrameScheduler frameScheduler;
+  private boolean isAttached;
+
+  // Guards the surface, so that it is never drawn to after it has been destroyed.
+  private final Object surfaceLock = new Object();
+  private boolean isSurfaceAvailable;
+
+  // The drawable, play time, and size of the next frame to draw, read by the render thread.
+  @Nullable private volatile KyrieDrawable renderedDrawable;
+  private volatile long requestedPlayTime;
+  private volatile int surfaceWidth;
+  private volatile int surfaceHeight;
+  private final AtomicBoolean isFrameScheduled = new AtomicBoolean();
+
+  private final KyrieDrawable.FrameHost frameHost =
+      new KyrieDrawable.FrameHost() {
+        @Override
+        public void requestFrame(long playTime) {
+          requestedPlayTime = playTime;
+          scheduleFrame();
+        }
+      };
+
+  private final Runnable renderFrameRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          isFrameScheduled.set(false);
+          renderFrame();
+        }
+      };
+
+  public KyrieView(Context context) {
+    this(context, null);
+  }
+
+  public KyrieView(Context context, @Nullable AttributeSet attrs) {
+    this(context, attrs, 0);
+  }
+
+  public KyrieView(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+    super(context, attrs, defStyleAttr);
+    frameScheduler =
+        Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN
+            ? new ChoreographerFrameScheduler(renderFrameRunnable)
+            : new ImmediateFrameScheduler(renderFrameRunnable);
+    setOpaque(false);
+    setSurfaceTextureListener(this);
+  }
+
+  /**
+   * Sets the drawable rendered by this view, or null to clear it. The drawable's animation can be
+   * controlled as usual once it has been set. Must be called on the main thread.
+   */
+  public void setDrawable(@Nullable KyrieDrawable drawable) {
+    if (this.drawable == drawable) {
+      return;
+    }
+    if (this.drawable != null) {
+      this.drawable.setCallback(null);
+      this.drawable.setFrameHost(null);
+    }
+    this.drawable = drawable;
+    renderedDrawable = drawable;
+    if (drawable != null) {
+      drawable.setCallback(this);
+      drawable.setVisible(isAttached && isShown(), false);
+      drawable.setFrameHost(frameHost);
+    } else {
+      scheduleFrame();
+    }
+  }
+
+  /** Returns the drawable rendered by this view, or null if there is none. */
+  @Nullable
+  public KyrieDrawable getDrawable() {
+    return drawable;
+  }
+
+  @Override
+  protected boolean verifyDrawable(@NonNull Drawable who) {
+    return who == drawable || super.verifyDrawable(who);
+  }
+
+  @Override
+  public void invalidateDrawable(@NonNull Drawable who) {
+    if (who != drawable) {
+      super.invalidateDrawable(who);
+      return;
+    }
+    // The frame is only drawn once per vsync on the render thread. Pending seeks are
+    // applied by the drawable itself, at the start of the next frame.
+    scheduleFrame();
+  }
+
+  @Override
+  protected void onAttachedToWindow() {
+    super.onAttachedToWindow();
+    isAttached = true;
+    updateDrawableVisibility();
+  }
+
+  @Override
+  protected void onDetachedFromWindow() {
+    super.onDetachedFromWindow();
+    isAttached = false;
+    updateDrawableVisibility();
+  }
+
+  @Override
+  protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+    super.onVisibilityChanged(changedView, visibility);
+    updateDrawableVisibility();
+  }
+
+  private void updateDrawableVisibility() {
+    if (drawable != null) {
+      // Invisible drawables suspend their animation until they are visible again.
+      drawable.setVisible(isAttached && isShown(), false);
+    }
+  }
+
+  // <editor-fold desc="SurfaceTextureListener">
+
+  @Override
+  public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+    surfaceWidth = width;
+    surfaceHeight = height;
+    synchronized (surfaceLock) {
+      isSurfaceAvailable = true;
+    }
+    renderThread = new HandlerThread("KyrieView", Process.THREAD_PRIORITY_DISPLAY);
+    renderThread.start();
+    renderHandler = new Handler(renderThread.getLooper());
+    isFrameScheduled.set(false);
+    scheduleFrame();
+  }
+
+  @Override
+  public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+    surfaceWidth = width;
+    surfaceHeight = height;
+    scheduleFrame();
+  }
+
+  @Override
+  public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+    // Wait for any frame that is being drawn to finish before the surface is released.
+    synchronized (surfaceLock) {
+      isSurfaceAvailable = false;
+    }
+    if (renderThread != null) {
+      renderThread.quit();
+      renderThread = null;
+      renderHandler = null;
+    }
+    return true;
+  }
+
+  @Override
+  public void onSurfaceTextureUpdated(SurfaceTexture surface) {}
+
+  // </editor-fold>
+
+  // <editor-fold desc="Rendering">
+
+  /** Schedules a frame on the render thread, unless one is already scheduled. */
+  private void scheduleFrame() {
+    if (renderHandler != null && isFrameScheduled.compareAndSet(false, true)) {
+      // The frame scheduler must be called on the render thread.
+      renderHandler.post(frameScheduler);
+    }
+  }
+
+  /** Draws the latest requested frame to the surface. Called on the render thread. */
+  private void renderFrame() {
+    synchronized (surfaceLock) {
+      if (!isSurfaceAvailable) {
+        return;
+      }
+      final Canvas canvas = lockCanvas();
+      if (canvas == null) {
+        return;
+      }
+      try {
+        canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        final KyrieDrawable drawable = renderedDrawable;
+        if (drawable != null) {
+          drawFitCenter(canvas, drawable, surfaceWidth, surfaceHeight);
+        }
+      } finally {
+        unlockCanvasAndPost(canvas);
+      }
+    }
+  }
+
+  /** Draws the drawable's frame scaled to fit the surface, and centered in it. */
+  private void drawFitCenter(
+      Canvas canvas, KyrieDrawable drawable, int surfaceWidth, int surfaceHeight) {
+    final int intrinsicWidth = drawable.getIntrinsicWidth();
+    final int intrinsicHeight = drawable.getIntrinsicHeight();
+    final float scale =
+        Math.min(surfaceWidth / (float) intrinsicWidth, surfaceHeight / (float) intrinsicHeight);
+    final int width = Math.round(intrinsicWidth * scale);
+    final int height = Math.round(intrinsicHeight * scale);
+    if (width <= 0 || height <= 0) {
+      return;
+    }
+    final int saveCount = canvas.save();
+    canvas.translate((surfaceWidth - width) / 2f, (surfaceHeight - height) / 2f);
+    drawable.drawFrameAt(canvas, requestedPlayTime, width, height);
+    canvas.restoreToCount(saveCount);
+  }
+
+  /** Waits for the right moment to draw a frame. Runs on the render thread. */
+  private interface FrameScheduler extends Runnable {}
+
+  /** Draws each frame at the render thread's next vsync. */
+  @RequiresApi(api = Build.VERSION_CODES.JELLY_BEAN)
+  private static final class ChoreographerFrameScheduler
+      implements FrameScheduler, Choreographer.FrameCallback {
+    @NonNull private final Runnable frameRunnable;
+
+    ChoreographerFrameScheduler(Runnable frameRunnable) {
+      this.frameRunnable = frameRunnable;
+    }
+
+    @Override
+    public void run() {
+      // Each looper thread has its own choreographer.
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+      frameRunnable.run();
+    }
+  }
+
+  /**
+   * Used on API 14 and 15, where {@link Choreographer} isn't available. Frames are drawn as soon as
+   * they are requested, which is at most once per frame of the drawable's animator.
+   */
+  private static final class ImmediateFrameScheduler implements FrameScheduler {
+    @NonNull private final Runnable frameRunnable;
+
+    ImmediateFrameScheduler(Runnable frameRunnable) {
+      this.frameRunnable = frameRunnable;
+    }
+
+    @Override
+    public void run() {
+      frameRunnable.run();
+    }
+  }
+
+  // </editor-fold>
+}
@@ -111,7 +111,7 @@ public final class LineNode extends RenderNode {
     }
 
     @Override
-    public void onInitPath(Path outPath) {
+    public void onInitPath(Path outPath, DrawContext context) {
       final float startX = this.startX.getAnimatedValue();
       final float startY = this.startY.getAnimatedValue();
       final float endX = this.endX.getAnimatedValue();
@@ -1,12 +1,14 @@
 package com.github.alexjlockwood.kyrie;
 
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.PointF;
+import android.graphics.RectF;
 import android.support.annotation.ColorInt;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -25,9 +27,44 @@ public abstract class Node {
   abstract Layer toLayer(PropertyTimeline timeline);
 
   interface Layer {
-    void draw(Canvas canvas, Matrix parentMatrix, PointF viewportScale);
-
-    void onDraw(Canvas canvas, Matrix parentMatrix, PointF viewportScale);
+    void draw(Canvas canvas, Matrix parentMatrix, PointF viewportScale, DrawContext context);
+
+    void onDraw(Canvas canvas, Matrix parentMatrix, PointF viewportScale, DrawContext context);
+
+    /**
+     * Computes conservative device-space bounds for everything this layer draws. The bounds are
+     * cached and only recomputed when the layer's geometry, transform, or parent matrix changes.
+     *
+     * <p>If {@code outDirtyBounds} is non-null, the old and new bounds of each descendant layer
+     * that has changed since the last call are added to it.
+     */
+    void getBounds(
+        Matrix parentMatrix,
+        PointF viewportScale,
+        RectF outBounds,
+        @Nullable RectF outDirtyBounds,
+        DrawContext context);
+
+    /**
+     * Invalidates the layer's cached matrix, as well as the matrices of all of its descendants.
+     * Must be called whenever the parent matrix passed to the layer changes.
+     */
+    void invalidateMatrix();
+
+    /** Sets the layer whose cached bounds depend on this layer's bounds. */
+    void setParent(@Nullable Layer parent);
+
+    /**
+     * Called when the bounds or content of one of this layer's children have changed. Invalidates
+     * this layer's cached bounds, as well as the bounds of all of its ancestors.
+     */
+    void onChildInvalidated();
+
+    /** Returns true if none of the properties in this layer's subtree are animated. */
+    boolean isStatic();
+
+    /** Returns true if drawing this layer changes the canvas clip for the layers drawn after it. */
+    boolean isClipping();
   }
 
   /**
@@ -70,38 +107,70 @@ public abstract class Node {
     }
   }
 
+  // Shared constants for the default values of node properties.
+  private static final List<Animation<?, Float>> ZERO_ANIMATIONS =
+      Collections.<Animation<?, Float>>singletonList(Animation.ofConstant(0f));
+  private static final List<Animation<?, Float>> ONE_ANIMATIONS =
+      Collections.<Animation<?, Float>>singletonList(Animation.ofConstant(1f));
+  private static final List<Animation<?, Integer>> TRANSPARENT_ANIMATIONS =
+      Collections.<Animation<?, Integer>>singletonList(Animation.ofConstant(Color.TRANSPARENT));
+  private static final List<Animation<?, float[]>> EMPTY_FLOAT_ARRAY_ANIMATIONS =
+      Collections.<Animation<?, float[]>>singletonList(Animation.ofConstant(new float[0]));
+
   @NonNull
   static Animation<?, Float> asAnimation(float initialValue) {
-    return Animation.ofFloat(initialValue, initialValue).duration(0);
+    if (Float.floatToIntBits(initialValue) == Float.floatToIntBits(0f)) {
+      return ZERO_ANIMATIONS.get(0);
+    } else if (initialValue == 1f) {
+      return ONE_ANIMATIONS.get(0);
+    }
+    return Animation.ofConstant(initialValue);
   }
 
   @NonNull
   static Animation<?, Integer> asAnimation(@ColorInt int initialValue) {
-    return Animation.ofArgb(initialValue, initialValue).duration(0);
+    if (initialValue == Color.TRANSPARENT) {
+      return TRANSPARENT_ANIMATIONS.get(0);
+    }
+    return Animation.ofConstant(initialValue);
   }
 
   @NonNull
   static Animation<?, float[]> asAnimation(float[] initialValue) {
-    return Animation.ofFloatArray(initialValue, initialValue).duration(0);
+    if (initialValue.length == 0) {
+      return EMPTY_FLOAT_ARRAY_ANIMATIONS.get(0);
+    }
+    return Animation.ofConstant(initialValue);
   }
 
   @NonNull
   static Animation<?, PathData> asAnimation(PathData initialValue) {
-    return Animation.ofPathMorph(initialValue, initialValue).duration(0);
+    return Animation.ofConstant(initialValue);
   }
 
   @NonNull
   static List<Animation<?, Float>> asAnimations(float initialValue) {
+    if (Float.floatToIntBits(initialValue) == Float.floatToIntBits(0f)) {
+      return new AnimationList<>(ZERO_ANIMATIONS);
+    } else if (initialValue == 1f) {
+      return new AnimationList<>(ONE_ANIMATIONS);
+    }
     return asList(asAnimation(initialValue));
   }
 
   @NonNull
   static List<Animation<?, Integer>> asAnimations(int initialValue) {
+    if (initialValue == Color.TRANSPARENT) {
+      return new AnimationList<>(TRANSPARENT_ANIMATIONS);
+    }
     return asList(asAnimation(initialValue));
   }
 
   @NonNull
   static List<Animation<?, float[]>> asAnimations(float[] initialValue) {
+    if (initialValue.length == 0) {
+      return new AnimationList<>(EMPTY_FLOAT_ARRAY_ANIMATIONS);
+    }
     return asList(asAnimation(initialValue));
   }
 
@@ -112,9 +181,7 @@ public abstract class Node {
 
   @NonNull
   private static <T> List<Animation<?, T>> asList(Animation<?, T> animation) {
-    final List<Animation<?, T>> animations = new ArrayList<>(1);
-    animations.add(animation);
-    return animations;
+    return new AnimationList<>(Collections.<Animation<?, T>>singletonList(animation));
   }
 
   static <T> void replaceFirstAnimation(
@@ -81,7 +81,7 @@ public final class PathNode extends RenderNode {
     }
 
     @Override
-    public void onInitPath(Path outPath) {
+    public void onInitPath(Path outPath, DrawContext context) {
       PathData.toPath(pathData.getAnimatedValue(), outPath);
     }
   }
@@ -3,6 +3,7 @@ package com.github.alexjlockwood.kyrie;
 import android.animation.TimeInterpolator;
 import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.view.animation.LinearInterpolator;
 
 import com.github.alexjlockwood.kyrie.Animation.RepeatMode;
@@ -38,10 +39,14 @@ final class Property<V> {
       };
 
   @NonNull private final List<Animation<?, V>> animations;
-  private final List<Listener> listeners = new ArrayList<>();
+  @Nullable private List<Listener> listeners;
+  private final long startTime;
   private final long totalDuration;
   private long currentPlayTime;
 
+  // The value of a constant property, evaluated once when the property is created.
+  @Nullable private final V constantValue;
+
   public Property(List<Animation<?, V>> animations) {
     // Sort the animations.
     this.animations = new ArrayList<>(animations);
@@ -58,6 +63,7 @@ final class Property<V> {
       totalDuration = Math.max(currTotalDuration, totalDuration);
     }
     this.totalDuration = totalDuration;
+    this.startTime = computeStartTime(this.animations, totalDuration);
 
     // Fill in any missing start values.
     Animation<?, V> prevAnimation = null;
@@ -68,12 +74,47 @@ final class Property<V> {
       }
       prevAnimation = currAnimation;
     }
+
+    this.constantValue = isConstant() ? computeAnimatedValue() : null;
+  }
+
+  /**
+   * Computes the time before which the property's value never changes, given the property's
+   * sorted animations.
+   */
+  private static long computeStartTime(
+      List<? extends Animation<?, ?>> animations, long totalDuration) {
+    if (animations.get(0).getStartDelay() > 0) {
+      // The first animation is evaluated before it starts, so play times before its
+      // start delay must be treated as part of it.
+      return 0;
+    }
+    long startTime = totalDuration == Animation.INFINITE ? Long.MAX_VALUE : totalDuration;
+    for (int i = 0, size = animations.size(); i < size; i++) {
+      final Animation<?, ?> animation = animations.get(i);
+      // Only animations that start at 0 and take no time never change the value.
+      if (animation.getStartDelay() > 0 || animation.getDuration() > 0) {
+        startTime = Math.min(startTime, animation.getStartDelay());
+      }
+    }
+    return startTime;
+  }
+
+  /** Returns the time before which the property's value never changes. */
+  public long getStartTime() {
+    return startTime;
   }
 
   public long getTotalDuration() {
     return totalDuration;
   }
 
+  /** Returns true if the property's value never changes, regardless of the current play time. */
+  public boolean isConstant() {
+    // A total duration of 0 means the play time is always clamped to 0.
+    return totalDuration == 0;
+  }
+
   public void setCurrentPlayTime(@IntRange(from = 0L) long currentPlayTime) {
     if (currentPlayTime < 0) {
       currentPlayTime = 0;
@@ -89,10 +130,20 @@ final class Property<V> {
   }
 
   public void addListener(Listener listener) {
+    if (isConstant()) {
+      // The property's value never changes, so its listeners would never be called.
+      return;
+    }
+    if (listeners == null) {
+      listeners = new ArrayList<>();
+    }
     listeners.add(listener);
   }
 
   private void notifyListeners() {
+    if (listeners == null) {
+      return;
+    }
     for (int i = 0, size = listeners.size(); i < size; i++) {
       listeners.get(i).onCurrentPlayTimeChanged(this);
     }
@@ -177,6 +228,14 @@ final class Property<V> {
 
   @NonNull
   public V getAnimatedValue() {
+    if (constantValue != null) {
+      return constantValue;
+    }
+    return computeAnimatedValue();
+  }
+
+  @NonNull
+  private V computeAnimatedValue() {
     final Animation<?, V> animation = getCurrentAnimation();
     return animation.getAnimatedValue(getInterpolatedCurrentAnimationFraction(animation));
   }
@@ -2,22 +2,47 @@ package com.github.alexjlockwood.kyrie;
 
 import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 final class PropertyTimeline {
+  private static final Comparator<Property<?>> START_TIME_COMPARATOR =
+      new Comparator<Property<?>>() {
+        @Override
+        public int compare(Property<?> p1, Property<?> p2) {
+          final long s1 = p1.getStartTime();
+          final long s2 = p2.getStartTime();
+          return s1 < s2 ? -1 : s1 > s2 ? 1 : 0;
+        }
+      };
+
+  // The properties that aren't constant, in registration order.
   private final List<Property<?>> properties = new ArrayList<>();
+
+  // An interval index over the time spans during which each property's value can change. The
+  // properties are sorted by start time, and form an implicit binary search tree in which each
+  // subtree [start, end) is rooted at its midpoint and stores the latest end time within it.
+  @Nullable private Property<?>[] indexedProperties;
+  @Nullable private long[] indexedStartTimes;
+  @Nullable private long[] indexedEndTimes;
+  @Nullable private long[] indexedMaxEndTimes;
+
   private final Property.Listener listener =
       new Property.Listener() {
         @Override
         public void onCurrentPlayTimeChanged(@NonNull Property<?> property) {
-          drawable.invalidateSelf();
+          hasChanged = true;
         }
       };
 
   @NonNull private final KyrieDrawable drawable;
   private long totalDuration;
+  private boolean hasChanged;
+  private long currentPlayTime;
 
   public PropertyTimeline(KyrieDrawable drawable) {
     this.drawable = drawable;
@@ -26,7 +51,12 @@ final class PropertyTimeline {
   @NonNull
   public <V> Property<V> registerAnimatableProperty(List<Animation<?, V>> animations) {
     final Property<V> property = new Property<>(animations);
+    if (property.isConstant()) {
+      // Constant properties are evaluated once, and never need to be updated.
+      return property;
+    }
     properties.add(property);
+    indexedProperties = null;
     property.addListener(listener);
     if (totalDuration != Animation.INFINITE) {
       final long currTotalDuration = property.getTotalDuration();
@@ -40,11 +70,96 @@ final class PropertyTimeline {
   }
 
   public void setCurrentPlayTime(@IntRange(from = 0) long currentPlayTime) {
-    for (int i = 0, size = properties.size(); i < size; i++) {
-      properties.get(i).setCurrentPlayTime(currentPlayTime);
+    updateProperties(currentPlayTime);
+    // Notify the drawable once, after all of the properties have been updated.
+    if (hasChanged) {
+      hasChanged = false;
+      drawable.onTimelineChanged();
+    }
+  }
+
+  /**
+   * Sets the current play time without notifying the drawable. Used to evaluate frames that are
+   * rendered offscreen.
+   */
+  public void setCurrentPlayTimeSilently(@IntRange(from = 0) long currentPlayTime) {
+    updateProperties(currentPlayTime);
+    hasChanged = false;
+  }
+
+  private void updateProperties(@IntRange(from = 0) long currentPlayTime) {
+    final long previousPlayTime = this.currentPlayTime;
+    this.currentPlayTime = currentPlayTime;
+    if (indexedProperties == null) {
+      buildIndex();
+    }
+    // A property's value can only differ between the two play times if its
+    // time span overlaps the range between them.
+    updateProperties(
+        0,
+        indexedProperties.length,
+        Math.min(previousPlayTime, currentPlayTime),
+        Math.max(previousPlayTime, currentPlayTime));
+  }
+
+  /**
+   * Updates the indexed properties in the subtree [start, end) whose time spans overlap the range
+   * [minTime, maxTime].
+   */
+  private void updateProperties(int start, int end, long minTime, long maxTime) {
+    while (start < end) {
+      final int mid = (start + end) >>> 1;
+      if (indexedMaxEndTimes[mid] < minTime) {
+        // All of the properties in this subtree ended before the range.
+        return;
+      }
+      updateProperties(start, mid, minTime, maxTime);
+      if (indexedStartTimes[mid] > maxTime) {
+        // This property and all of those after it start after the range.
+        return;
+      }
+      if (indexedEndTimes[mid] >= minTime) {
+        indexedProperties[mid].setCurrentPlayTime(currentPlayTime);
+      }
+      start = mid + 1;
     }
   }
 
+  private void buildIndex() {
+    final int size = properties.size();
+    final List<Property<?>> sortedProperties = new ArrayList<>(properties);
+    Collections.sort(sortedProperties, START_TIME_COMPARATOR);
+    indexedProperties = sortedProperties.toArray(new Property<?>[size]);
+    indexedStartTimes = new long[size];
+    indexedEndTimes = new long[size];
+    indexedMaxEndTimes = new long[size];
+    for (int i = 0; i < size; i++) {
+      final Property<?> property = indexedProperties[i];
+      final long totalDuration = property.getTotalDuration();
+      indexedStartTimes[i] = property.getStartTime();
+      indexedEndTimes[i] = totalDuration == Animation.INFINITE ? Long.MAX_VALUE : totalDuration;
+    }
+    computeMaxEndTimes(0, size);
+  }
+
+  private long computeMaxEndTimes(int start, int end) {
+    if (start >= end) {
+      return Long.MIN_VALUE;
+    }
+    final int mid = (start + end) >>> 1;
+    final long maxEndTime =
+        Math.max(
+            indexedEndTimes[mid],
+            Math.max(computeMaxEndTimes(start, mid), computeMaxEndTimes(mid + 1, end)));
+    indexedMaxEndTimes[mid] = maxEndTime;
+    return maxEndTime;
+  }
+
+  @IntRange(from = 0)
+  public long getCurrentPlayTime() {
+    return currentPlayTime;
+  }
+
   public long getTotalDuration() {
     return totalDuration;
   }
@@ -122,7 +122,6 @@ public final class RectangleNode extends RenderNode {
     @NonNull private final Property<Float> cornerRadiusX;
     @NonNull private final Property<Float> cornerRadiusY;
 
-    private final RectF tempRect = new RectF();
 
     public RectangleLayer(PropertyTimeline timeline, RectangleNode node) {
       super(timeline, node);
@@ -135,13 +134,14 @@ public final class RectangleNode extends RenderNode {
     }
 
     @Override
-    public void onInitPath(Path outPath) {
+    public void onInitPath(Path outPath, DrawContext context) {
       final float l = x.getAnimatedValue();
       final float t = y.getAnimatedValue();
       final float r = l + width.getAnimatedValue();
       final float b = t + height.getAnimatedValue();
       final float rx = cornerRadiusX.getAnimatedValue();
       final float ry = cornerRadiusY.getAnimatedValue();
+      final RectF tempRect = context.tempRect;
       tempRect.set(l, t, r, b);
       outPath.addRoundRect(tempRect, rx, ry, Path.Direction.CW);
     }
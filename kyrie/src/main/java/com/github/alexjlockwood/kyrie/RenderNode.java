@@ -8,6 +8,7 @@ import android.graphics.Paint;
 import android.graphics.Path;
 import android.graphics.PathMeasure;
 import android.graphics.PointF;
+import android.graphics.RectF;
 import android.support.annotation.ColorInt;
 import android.support.annotation.FloatRange;
 import android.support.annotation.NonNull;
@@ -172,20 +173,18 @@ abstract class RenderNode extends BaseNode {
     @FillType private final int fillType;
     private boolean isStrokeScaling;
 
-    private final Matrix tempMatrix = new Matrix();
-    private final Path tempPath = new Path();
-    private final Path tempRenderPath = new Path();
-    @Nullable private Paint tempStrokePaint;
-    @Nullable private Paint tempFillPaint;
-    @Nullable private PathMeasure tempPathMeasure;
-    @Nullable private float[] tempStrokeDashArray;
+    // The transformed path that is drawn to the canvas, along with the viewport
+    // scale that was used to compute it.
+    private final Path renderPath = new Path();
+    private final PointF renderPathViewportScale = new PointF();
+    private boolean isRenderPathValid;
 
     public RenderLayer(PropertyTimeline timeline, RenderNode node) {
       super(timeline, node);
-      fillColor = registerAnimatableProperty(node.getFillColor());
-      fillAlpha = registerAnimatableProperty(node.getFillAlpha());
-      strokeColor = registerAnimatableProperty(node.getStrokeColor());
-      strokeAlpha = registerAnimatableProperty(node.getStrokeAlpha());
+      fillColor = registerAnimatablePaintProperty(node.getFillColor());
+      fillAlpha = registerAnimatablePaintProperty(node.getFillAlpha());
+      strokeColor = registerAnimatablePaintProperty(node.getStrokeColor());
+      strokeAlpha = registerAnimatablePaintProperty(node.getStrokeAlpha());
       strokeWidth = registerAnimatableProperty(node.getStrokeWidth());
       trimPathStart = registerAnimatableProperty(node.getTrimPathStart());
       trimPathEnd = registerAnimatableProperty(node.getTrimPathEnd());
@@ -193,40 +192,96 @@ abstract class RenderNode extends BaseNode {
       strokeLineCap = node.getStrokeLineCap();
       strokeLineJoin = node.getStrokeLineJoin();
       strokeMiterLimit = registerAnimatableProperty(node.getStrokeMiterLimit());
-      strokeDashArray = registerAnimatableProperty(node.getStrokeDashArray());
-      strokeDashOffset = registerAnimatableProperty(node.getStrokeDashOffset());
+      strokeDashArray = registerAnimatablePaintProperty(node.getStrokeDashArray());
+      strokeDashOffset = registerAnimatablePaintProperty(node.getStrokeDashOffset());
       fillType = node.getFillType();
       isStrokeScaling = node.isScalingStroke();
     }
 
-    public abstract void onInitPath(Path outPath);
+    public abstract void onInitPath(Path outPath, DrawContext context);
 
     @Override
-    public final void onDraw(Canvas canvas, Matrix parentMatrix, PointF viewportScale) {
-      final float matrixScale = getMatrixScale(parentMatrix);
+    final void onComputeBounds(
+        Matrix matrix,
+        PointF viewportScale,
+        RectF outBounds,
+        @Nullable RectF outDirtyBounds,
+        DrawContext context) {
+      final float matrixScale = getMatrixScale(context);
       if (matrixScale == 0) {
+        outBounds.setEmpty();
         return;
       }
+      updateRenderPath(matrix, viewportScale, context);
+      renderPath.computeBounds(outBounds, true);
+      final float strokeWidth = this.strokeWidth.getAnimatedValue();
+      if (strokeWidth > 0) {
+        // Outset the path bounds by the farthest distance that the stroke
+        // can extend away from the path (i.e. at miter joins or square caps).
+        float strokeOutsetFactor = 1f;
+        if (strokeLineJoin == StrokeLineJoin.MITER) {
+          strokeOutsetFactor = Math.max(strokeOutsetFactor, strokeMiterLimit.getAnimatedValue());
+        }
+        if (strokeLineCap == StrokeLineCap.SQUARE) {
+          strokeOutsetFactor = Math.max(strokeOutsetFactor, (float) Math.sqrt(2));
+        }
+        final float strokeScaleFactor = getStrokeScaleFactor(matrixScale, viewportScale);
+        final float strokeOutset = strokeWidth * strokeScaleFactor * strokeOutsetFactor / 2;
+        outBounds.inset(-strokeOutset, -strokeOutset);
+      }
+    }
+
+    @Override
+    final void invalidateBounds() {
+      isRenderPathValid = false;
+      super.invalidateBounds();
+    }
 
+    @Override
+    final void onMatrixInvalidated() {
+      isRenderPathValid = false;
+    }
+
+    @Override
+    public final void onDraw(
+        Canvas canvas, Matrix parentMatrix, PointF viewportScale, DrawContext context) {
+      final float matrixScale = getMatrixScale(context);
+      if (matrixScale == 0) {
+        return;
+      }
+      updateRenderPath(parentMatrix, viewportScale, context);
+      drawFillIfNeeded(canvas, renderPath, context);
+      drawStrokeIfNeeded(
+          canvas, renderPath, getStrokeScaleFactor(matrixScale, viewportScale), context);
+    }
+
+    private void updateRenderPath(Matrix matrix, PointF viewportScale, DrawContext context) {
+      if (isRenderPathValid && renderPathViewportScale.equals(viewportScale.x, viewportScale.y)) {
+        return;
+      }
       final float scaleX = viewportScale.x;
       final float scaleY = viewportScale.y;
-      tempMatrix.set(parentMatrix);
+      final Matrix tempMatrix = context.tempMatrix;
+      tempMatrix.set(matrix);
       if (scaleX != 1f || scaleY != 1f) {
         tempMatrix.postScale(scaleX, scaleY);
       }
 
+      final Path tempPath = context.tempPath;
       tempPath.reset();
-      onInitPath(tempPath);
-      applyTrimPathIfNeeded(tempPath);
-      tempRenderPath.reset();
-      tempRenderPath.addPath(tempPath, tempMatrix);
-      drawFillIfNeeded(canvas, tempRenderPath);
-      final float strokeScaleFactor =
-          Math.min(scaleX, scaleY) * (isStrokeScaling ? matrixScale : 1);
-      drawStrokeIfNeeded(canvas, tempRenderPath, strokeScaleFactor);
+      onInitPath(tempPath, context);
+      applyTrimPathIfNeeded(tempPath, context);
+      renderPath.reset();
+      renderPath.addPath(tempPath, tempMatrix);
+      renderPathViewportScale.set(viewportScale);
+      isRenderPathValid = true;
     }
 
-    private void applyTrimPathIfNeeded(Path outPath) {
+    private float getStrokeScaleFactor(float matrixScale, PointF viewportScale) {
+      return Math.min(viewportScale.x, viewportScale.y) * (isStrokeScaling ? matrixScale : 1);
+    }
+
+    private void applyTrimPathIfNeeded(Path outPath, DrawContext context) {
       final float trimPathStart = this.trimPathStart.getAnimatedValue();
       final float trimPathEnd = this.trimPathEnd.getAnimatedValue();
       final float trimPathOffset = this.trimPathOffset.getAnimatedValue();
@@ -235,9 +290,7 @@ abstract class RenderNode extends BaseNode {
       }
       float start = (trimPathStart + trimPathOffset) % 1f;
       float end = (trimPathEnd + trimPathOffset) % 1f;
-      if (tempPathMeasure == null) {
-        tempPathMeasure = new PathMeasure();
-      }
+      final PathMeasure tempPathMeasure = context.getPathMeasure();
       tempPathMeasure.setPath(outPath, false);
       final float len = tempPathMeasure.getLength();
       start = start * len;
@@ -253,48 +306,39 @@ abstract class RenderNode extends BaseNode {
       outPath.rLineTo(0f, 0f);
     }
 
-    private void drawFillIfNeeded(Canvas canvas, Path path) {
+    private void drawFillIfNeeded(Canvas canvas, Path path, DrawContext context) {
       final int fillColor = this.fillColor.getAnimatedValue();
       final float fillAlpha = this.fillAlpha.getAnimatedValue();
       if (fillColor == Color.TRANSPARENT) {
         return;
       }
-      if (tempFillPaint == null) {
-        tempFillPaint = new Paint();
-        tempFillPaint.setStyle(Paint.Style.FILL);
-        tempFillPaint.setAntiAlias(true);
-      }
-      final Paint paint = tempFillPaint;
+      final Paint paint = context.getFillPaint();
       paint.setColor(applyAlpha(fillColor, fillAlpha));
       path.setFillType(getPaintFillType(fillType));
       canvas.drawPath(path, paint);
     }
 
-    private void drawStrokeIfNeeded(Canvas canvas, Path path, float strokeScaleFactor) {
+    private void drawStrokeIfNeeded(
+        Canvas canvas, Path path, float strokeScaleFactor, DrawContext context) {
       final int strokeColor = this.strokeColor.getAnimatedValue();
       final float strokeAlpha = this.strokeAlpha.getAnimatedValue();
       final float strokeWidth = this.strokeWidth.getAnimatedValue();
       if (strokeColor == Color.TRANSPARENT || strokeWidth == 0) {
         return;
       }
-      if (tempStrokePaint == null) {
-        tempStrokePaint = new Paint();
-        tempStrokePaint.setStyle(Paint.Style.STROKE);
-        tempStrokePaint.setAntiAlias(true);
-      }
-      final Paint paint = tempStrokePaint;
+      final Paint paint = context.getStrokePaint();
       paint.setStrokeCap(getPaintStrokeLineCap(strokeLineCap));
       paint.setStrokeJoin(getPaintStrokeLineJoin(strokeLineJoin));
       paint.setStrokeMiter(strokeMiterLimit.getAnimatedValue());
       paint.setColor(applyAlpha(strokeColor, strokeAlpha));
       paint.setStrokeWidth(strokeWidth * strokeScaleFactor);
       // TODO: can/should we cache path effects?
-      paint.setPathEffect(getDashPathEffect(strokeScaleFactor));
+      paint.setPathEffect(getDashPathEffect(strokeScaleFactor, context));
       canvas.drawPath(path, paint);
     }
 
     @Nullable
-    private DashPathEffect getDashPathEffect(float strokeScaleFactor) {
+    private DashPathEffect getDashPathEffect(float strokeScaleFactor, DrawContext context) {
       final float[] strokeDashArray = this.strokeDashArray.getAnimatedValue();
       if (strokeDashArray.length == 0) {
         return null;
@@ -304,9 +348,7 @@ abstract class RenderNode extends BaseNode {
       final int initialSize = strokeDashArray.length;
       final int expansionFactor = initialSize % 2 == 0 ? 1 : 2;
       final int requiredSize = initialSize * expansionFactor;
-      if (tempStrokeDashArray == null || tempStrokeDashArray.length != requiredSize) {
-        tempStrokeDashArray = new float[requiredSize];
-      }
+      final float[] tempStrokeDashArray = context.getStrokeDashArray(requiredSize);
       for (int i = 0; i < initialSize; i++) {
         tempStrokeDashArray[i] = strokeDashArray[i] * strokeScaleFactor;
       }
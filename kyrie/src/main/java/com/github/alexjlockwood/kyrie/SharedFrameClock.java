@@ -0,0 +1,151 @@
+package com.github.alexjlockwood.kyrie;
+
+import android.animation.ValueAnimator;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A frame clock that ticks every registered {@link FrameCallback} from a single vsync callback.
+ * Registered callbacks are advanced in one pass per frame, and the clock stops requesting frames as
+ * soon as no callback needs them. All methods must be called on the main thread.
+ */
+final class SharedFrameClock {
+  @Nullable private static SharedFrameClock instance;
+
+  /** Returns the shared {@link SharedFrameClock}. Must be called on the main thread. */
+  @NonNull
+  static SharedFrameClock getInstance() {
+    if (instance == null) {
+      instance = new SharedFrameClock();
+    }
+    return instance;
+  }
+
+  /** A callback that is invoked once per frame while it is registered with the clock. */
+  interface FrameCallback {
+    /**
+     * Called at the start of every frame.
+     *
+     * @param frameTimeMillis The time at which the frame started, in the {@link
+     *     SystemClock#uptimeMillis()} time base.
+     * @return true if the callback wants to receive another frame, false otherwise.
+     */
+    boolean doFrame(long frameTimeMillis);
+  }
+
+  // Removed callbacks are nulled out and compacted at the end of each frame, so that callbacks can
+  // be safely added and removed while a frame is being dispatched.
+  private final List<FrameCallback> callbacks = new ArrayList<>();
+  @NonNull private final FrameScheduler scheduler;
+  private boolean isFrameScheduled;
+  private boolean hasRemovedCallbacks;
+
+  private SharedFrameClock() {
+    final Runnable frameRunnable =
+        new Runnable() {
+          @Override
+          public void run() {
+            doFrame(SystemClock.uptimeMillis());
+          }
+        };
+    scheduler =
+        Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN
+            ? new ChoreographerFrameScheduler(this)
+            : new HandlerFrameScheduler(frameRunnable);
+  }
+
+  /** Registers a callback and starts ticking if the clock isn't already running. */
+  void addCallback(FrameCallback callback) {
+    if (!callbacks.contains(callback)) {
+      callbacks.add(callback);
+    }
+    if (!isFrameScheduled) {
+      isFrameScheduled = true;
+      scheduler.scheduleFrame();
+    }
+  }
+
+  /** Unregisters a callback. The clock stops ticking once no callbacks remain. */
+  void removeCallback(FrameCallback callback) {
+    final int index = callbacks.indexOf(callback);
+    if (index >= 0) {
+      callbacks.set(index, null);
+      hasRemovedCallbacks = true;
+    }
+  }
+
+  void doFrame(long frameTimeMillis) {
+    isFrameScheduled = false;
+    // Callbacks registered during this frame are appended to the list and will
+    // receive their first tick on the next frame.
+    for (int i = 0, size = callbacks.size(); i < size; i++) {
+      final FrameCallback callback = callbacks.get(i);
+      if (callback != null && !callback.doFrame(frameTimeMillis)) {
+        removeCallback(callback);
+      }
+    }
+    if (hasRemovedCallbacks) {
+      hasRemovedCallbacks = false;
+      for (int i = callbacks.size() - 1; i >= 0; i--) {
+        if (callbacks.get(i) == null) {
+          callbacks.remove(i);
+        }
+      }
+    }
+    if (!callbacks.isEmpty() && !isFrameScheduled) {
+      isFrameScheduled = true;
+      scheduler.scheduleFrame();
+    }
+  }
+
+  private interface FrameScheduler {
+    void scheduleFrame();
+  }
+
+  @RequiresApi(api = Build.VERSION_CODES.JELLY_BEAN)
+  private static final class ChoreographerFrameScheduler
+      implements FrameScheduler, Choreographer.FrameCallback {
+    private static final long NANOS_PER_MS = 1000000L;
+
+    @NonNull private final SharedFrameClock clock;
+    @NonNull private final Choreographer choreographer = Choreographer.getInstance();
+
+    ChoreographerFrameScheduler(SharedFrameClock clock) {
+      this.clock = clock;
+    }
+
+    @Override
+    public void scheduleFrame() {
+      choreographer.postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+      clock.doFrame(frameTimeNanos / NANOS_PER_MS);
+    }
+  }
+
+  /** Used on API 14 and 15, where {@link Choreographer} isn't available. */
+  private static final class HandlerFrameScheduler implements FrameScheduler {
+    @NonNull private final Handler handler = new Handler(Looper.getMainLooper());
+    @NonNull private final Runnable frameRunnable;
+
+    HandlerFrameScheduler(Runnable frameRunnable) {
+      this.frameRunnable = frameRunnable;
+    }
+
+    @Override
+    public void scheduleFrame() {
+      handler.postDelayed(frameRunnable, ValueAnimator.getFrameDelay());
+    }
+  }
+}
@@ -0,0 +1,554 @@
+package com.github.alexjlockwood.kyrie;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+import android.util.Xml;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inflates {@link KyrieDrawable}s from SVG documents. The document is read with a pull parser and
+ * each element is turned into a node builder as soon as its start tag has been read, so the
+ * document itself is never held in memory. No {@link android.content.res.Resources} are used, so
+ * documents can be inflated on any thread.
+ *
+ * <p>Only the static subset of SVG that maps onto Kyrie's nodes is supported: the {@code g},
+ * {@code path}, {@code circle}, {@code ellipse}, {@code rect}, {@code line}, {@code polyline}, and
+ * {@code polygon} elements, their transforms, and their fill and stroke properties (either as
+ * presentation attributes or in inline {@code style} attributes). Everything else (e.g. text,
+ * gradients, and elements that are referenced from elsewhere in the document) is skipped.
+ */
+final class SvgInflationUtils {
+  private static final String TAG = "SvgInflationUtils";
+
+  private static final String TAG_SVG = "svg";
+  private static final String TAG_GROUP = "g";
+  private static final String TAG_ANCHOR = "a";
+  private static final String TAG_PATH = "path";
+  private static final String TAG_CIRCLE = "circle";
+  private static final String TAG_ELLIPSE = "ellipse";
+  private static final String TAG_RECT = "rect";
+  private static final String TAG_LINE = "line";
+  private static final String TAG_POLYLINE = "polyline";
+  private static final String TAG_POLYGON = "polygon";
+
+  // SVG user units are CSS pixels, which are treated as density-independent pixels.
+  private static final float PIXELS_PER_INCH = 96f;
+
+  private SvgInflationUtils() {}
+
+  public static void inflate(KyrieDrawable.Builder builder, Context context, InputStream in)
+      throws XmlPullParserException, IOException {
+    final XmlPullParser parser = Xml.newPullParser();
+    parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, false);
+    parser.setInput(in, null);
+    int type;
+    //noinspection StatementWithEmptyBody
+    while ((type = parser.next()) != XmlPullParser.START_TAG
+        && type != XmlPullParser.END_DOCUMENT) {
+      // Empty loop
+    }
+    if (type != XmlPullParser.START_TAG || !TAG_SVG.equals(parser.getName())) {
+      throw new XmlPullParserException("No <svg> start tag found");
+    }
+    final float density = context.getResources().getDisplayMetrics().density;
+    final GroupNode.Builder rootBuilder = inflateSvg(builder, parser, density);
+    inflateChildren(rootBuilder, parser, new Style().inherit(parser));
+    builder.child(rootBuilder);
+  }
+
+  /**
+   * Applies the root element's size and viewport to the builder, and returns the group that all of
+   * the document's nodes are added to.
+   */
+  @NonNull
+  private static GroupNode.Builder inflateSvg(
+      KyrieDrawable.Builder builder, XmlPullParser parser, float density)
+      throws XmlPullParserException {
+    final float width = parseLength(parser.getAttributeValue(null, "width"), -1);
+    final float height = parseLength(parser.getAttributeValue(null, "height"), -1);
+    final GroupNode.Builder rootBuilder = GroupNode.builder();
+    final float[] viewBox = parseFloats(parser.getAttributeValue(null, "viewBox"));
+    if (viewBox.length == 4) {
+      builder.viewport(viewBox[2], viewBox[3]);
+      rootBuilder.translateX(-viewBox[0]).translateY(-viewBox[1]);
+    } else if (width > 0 && height > 0) {
+      builder.viewport(width, height);
+    } else {
+      throw new XmlPullParserException("<svg> must have a viewBox or a width and height");
+    }
+    if (width > 0) {
+      builder.width(Math.round(width * density));
+    }
+    if (height > 0) {
+      builder.height(Math.round(height * density));
+    }
+    return rootBuilder;
+  }
+
+  /** Inflates the children of the current element, until its end tag has been read. */
+  private static void inflateChildren(
+      GroupNode.Builder rootBuilder, XmlPullParser parser, Style rootStyle)
+      throws XmlPullParserException, IOException {
+    // The groups and styles of the open container elements. The top is always the current one.
+    final List<GroupNode.Builder> groupStack = new ArrayList<>();
+    final List<Style> styleStack = new ArrayList<>();
+    groupStack.add(rootBuilder);
+    styleStack.add(rootStyle);
+    final int outerDepth = parser.getDepth();
+    int type;
+    while ((type = parser.next()) != XmlPullParser.END_DOCUMENT
+        && (type != XmlPullParser.END_TAG || parser.getDepth() > outerDepth)) {
+      if (type == XmlPullParser.END_TAG) {
+        // Only container elements are left open, so this closes the current group.
+        groupStack.remove(groupStack.size() - 1);
+        styleStack.remove(styleStack.size() - 1);
+        continue;
+      }
+      if (type != XmlPullParser.START_TAG) {
+        continue;
+      }
+      final String tagName = parser.getName();
+      final GroupNode.Builder parent = groupStack.get(groupStack.size() - 1);
+      final Style style = styleStack.get(styleStack.size() - 1).inherit(parser);
+      if (TAG_GROUP.equals(tagName) || TAG_ANCHOR.equals(tagName) || TAG_SVG.equals(tagName)) {
+        final GroupNode.Builder groupBuilder = GroupNode.builder();
+        addTransformedChild(parent, groupBuilder, parser);
+        groupStack.add(groupBuilder);
+        styleStack.add(style);
+        continue;
+      }
+      final RenderNode.Builder<?> shapeBuilder = createShape(tagName, parser);
+      if (shapeBuilder != null) {
+        style.applyTo(shapeBuilder);
+        addTransformedChild(parent, shapeBuilder, parser);
+      }
+      // Shapes can't have visible children, and unsupported elements are ignored entirely.
+      skipElement(parser);
+    }
+  }
+
+  @Nullable
+  private static RenderNode.Builder<?> createShape(String tagName, XmlPullParser parser) {
+    switch (tagName) {
+      case TAG_PATH:
+        {
+          final String pathData = parser.getAttributeValue(null, "d");
+          return pathData == null ? null : PathNode.builder().pathData(pathData);
+        }
+      case TAG_CIRCLE:
+        return CircleNode.builder()
+            .centerX(getFloat(parser, "cx", 0))
+            .centerY(getFloat(parser, "cy", 0))
+            .radius(getFloat(parser, "r", 0));
+      case TAG_ELLIPSE:
+        return EllipseNode.builder()
+            .centerX(getFloat(parser, "cx", 0))
+            .centerY(getFloat(parser, "cy", 0))
+            .radiusX(getFloat(parser, "rx", 0))
+            .radiusY(getFloat(parser, "ry", 0));
+      case TAG_RECT:
+        {
+          final float width = getFloat(parser, "width", 0);
+          final float height = getFloat(parser, "height", 0);
+          // A missing corner radius defaults to the other one.
+          float rx = getFloat(parser, "rx", -1);
+          float ry = getFloat(parser, "ry", -1);
+          rx = rx < 0 ? ry : rx;
+          ry = ry < 0 ? rx : ry;
+          return RectangleNode.builder()
+              .x(getFloat(parser, "x", 0))
+              .y(getFloat(parser, "y", 0))
+              .width(width)
+              .height(height)
+              .cornerRadiusX(Math.max(0, Math.min(rx, width / 2)))
+              .cornerRadiusY(Math.max(0, Math.min(ry, height / 2)));
+        }
+      case TAG_LINE:
+        return LineNode.builder()
+            .startX(getFloat(parser, "x1", 0))
+            .startY(getFloat(parser, "y1", 0))
+            .endX(getFloat(parser, "x2", 0))
+            .endY(getFloat(parser, "y2", 0));
+      case TAG_POLYLINE:
+      case TAG_POLYGON:
+        {
+          final float[] points = parseFloats(parser.getAttributeValue(null, "points"));
+          if (points.length < 2) {
+            return null;
+          }
+          final StringBuilder sb = new StringBuilder("M");
+          for (int i = 0; i + 1 < points.length; i += 2) {
+            sb.append(' ').append(points[i]).append(' ').append(points[i + 1]);
+          }
+          if (TAG_POLYGON.equals(tagName)) {
+            sb.append(" Z");
+          }
+          return PathNode.builder().pathData(sb.toString());
+        }
+      default:
+        return null;
+    }
+  }
+
+  /** Skips the rest of the current element, including all of its children. */
+  private static void skipElement(XmlPullParser parser)
+      throws XmlPullParserException, IOException {
+    final int depth = parser.getDepth();
+    int type;
+    while ((type = parser.next()) != XmlPullParser.END_DOCUMENT
+        && (type != XmlPullParser.END_TAG || parser.getDepth() > depth)) {
+      // Empty loop
+    }
+  }
+
+  // <editor-fold desc="Transforms">
+
+  /**
+   * Adds the child to the parent, wrapped in a group for each of the functions in the element's
+   * transform attribute. Groups whose transforms never change are removed when the drawable's
+   * layers are created, so the extra groups don't cost anything when drawing.
+   */
+  private static void addTransformedChild(
+      GroupNode.Builder parent, Node.Builder child, XmlPullParser parser) {
+    final String transform = parser.getAttributeValue(null, "transform");
+    if (transform != null) {
+      int start = 0;
+      int open;
+      while ((open = transform.indexOf('(', start)) >= 0) {
+        final int close = transform.indexOf(')', open);
+        if (close < 0) {
+          break;
+        }
+        final String name = transform.substring(start, open).replace(',', ' ').trim();
+        final float[] args = parseFloats(transform.substring(open + 1, close));
+        final GroupNode.Builder group = createTransformGroup(name, args);
+        if (group != null) {
+          parent.child(group);
+          parent = group;
+        }
+        start = close + 1;
+      }
+    }
+    parent.child(child);
+  }
+
+  @Nullable
+  private static GroupNode.Builder createTransformGroup(String name, float[] args) {
+    if (args.length == 0) {
+      return null;
+    }
+    switch (name) {
+      case "translate":
+        return GroupNode.builder()
+            .translateX(args[0])
+            .translateY(args.length > 1 ? args[1] : 0);
+      case "scale":
+        return GroupNode.builder().scaleX(args[0]).scaleY(args.length > 1 ? args[1] : args[0]);
+      case "rotate":
+        return args.length < 3
+            ? GroupNode.builder().rotation(args[0])
+            : GroupNode.builder().rotation(args[0]).pivotX(args[1]).pivotY(args[2]);
+      case "matrix":
+        return args.length < 6 ? null : createMatrixGroup(args);
+      default:
+        Log.w(TAG, "Unsupported transform: " + name);
+        return null;
+    }
+  }
+
+  /**
+   * Decomposes an affine matrix into a translation, rotation, and scale. Groups can't be skewed,
+   * so the skew of matrices that have one is dropped.
+   */
+  @NonNull
+  private static GroupNode.Builder createMatrixGroup(float[] m) {
+    final float a = m[0];
+    final float b = m[1];
+    final float c = m[2];
+    final float d = m[3];
+    final float scaleX = (float) Math.hypot(a, b);
+    final float scaleY = scaleX == 0 ? (float) Math.hypot(c, d) : (a * d - b * c) / scaleX;
+    if (Math.abs(a * c + b * d) > 1e-4f * Math.max(1f, scaleX * Math.abs(scaleY))) {
+      Log.w(TAG, "Skewed transforms aren't supported");
+    }
+    return GroupNode.builder()
+        .translateX(m[4])
+        .translateY(m[5])
+        .rotation((float) Math.toDegrees(Math.atan2(b, a)))
+        .scaleX(scaleX)
+        .scaleY(scaleY);
+  }
+
+  // </editor-fold>
+
+  // <editor-fold desc="Style">
+
+  /** The fill and stroke properties of an element, which are inherited by its children. */
+  private static final class Style {
+    @ColorInt private int fillColor = Color.BLACK;
+    private float fillOpacity = 1;
+    @FillType private int fillType = FillType.NON_ZERO;
+    @ColorInt private int strokeColor = Color.TRANSPARENT;
+    private float strokeOpacity = 1;
+    private float strokeWidth = 1;
+    @StrokeLineCap private int strokeLineCap = StrokeLineCap.BUTT;
+    @StrokeLineJoin private int strokeLineJoin = StrokeLineJoin.MITER;
+    private float strokeMiterLimit = 4;
+    @Nullable private float[] strokeDashArray;
+    private float strokeDashOffset;
+
+    // Group opacity isn't inherited in SVG, but there is no group alpha to apply
+    // it to, so it is approximated by multiplying it into each shape's alphas.
+    // While an element's properties are parsed, this holds its own opacity only.
+    private float opacity = 1;
+
+    /**
+     * Returns the style of the current element, which inherits this style and overrides it with
+     * the element's presentation attributes and inline style declarations.
+     */
+    @NonNull
+    Style inherit(XmlPullParser parser) {
+      final Style style = new Style();
+      style.fillColor = fillColor;
+      style.fillOpacity = fillOpacity;
+      style.fillType = fillType;
+      style.strokeColor = strokeColor;
+      style.strokeOpacity = strokeOpacity;
+      style.strokeWidth = strokeWidth;
+      style.strokeLineCap = strokeLineCap;
+      style.strokeLineJoin = strokeLineJoin;
+      style.strokeMiterLimit = strokeMiterLimit;
+      style.strokeDashArray = strokeDashArray;
+      style.strokeDashOffset = strokeDashOffset;
+      String inlineStyle = null;
+      for (int i = 0, count = parser.getAttributeCount(); i < count; i++) {
+        final String name = parser.getAttributeName(i);
+        if ("style".equals(name)) {
+          inlineStyle = parser.getAttributeValue(i);
+        } else {
+          style.setProperty(name, parser.getAttributeValue(i).trim());
+        }
+      }
+      // Inline style declarations take precedence over presentation attributes.
+      if (inlineStyle != null) {
+        for (String declaration : inlineStyle.split(";")) {
+          final int colon = declaration.indexOf(':');
+          if (colon > 0) {
+            style.setProperty(
+                declaration.substring(0, colon).trim(), declaration.substring(colon + 1).trim());
+          }
+        }
+      }
+      // Multiply in the ancestors' opacity once, after the element's own opacity has been
+      // resolved, so that an inline declaration replaces the attribute instead of compounding it.
+      style.opacity *= opacity;
+      return style;
+    }
+
+    private void setProperty(String name, String value) {
+      if ("inherit".equals(value)) {
+        return;
+      }
+      switch (name) {
+        case "fill":
+          fillColor = parseColor(value, fillColor);
+          break;
+        case "fill-opacity":
+          fillOpacity = parseOpacity(value, fillOpacity);
+          break;
+        case "fill-rule":
+          fillType = "evenodd".equals(value) ? FillType.EVEN_ODD : FillType.NON_ZERO;
+          break;
+        case "stroke":
+          strokeColor = parseColor(value, strokeColor);
+          break;
+        case "stroke-opacity":
+          strokeOpacity = parseOpacity(value, strokeOpacity);
+          break;
+        case "stroke-width":
+          strokeWidth = parseLength(value, strokeWidth);
+          break;
+        case "stroke-linecap":
+          strokeLineCap =
+              "round".equals(value)
+                  ? StrokeLineCap.ROUND
+                  : "square".equals(value) ? StrokeLineCap.SQUARE : StrokeLineCap.BUTT;
+          break;
+        case "stroke-linejoin":
+          strokeLineJoin =
+              "round".equals(value)
+                  ? StrokeLineJoin.ROUND
+                  : "bevel".equals(value) ? StrokeLineJoin.BEVEL : StrokeLineJoin.MITER;
+          break;
+        case "stroke-miterlimit":
+          strokeMiterLimit = parseLength(value, strokeMiterLimit);
+          break;
+        case "stroke-dasharray":
+          strokeDashArray = parseDashArray(value);
+          break;
+        case "stroke-dashoffset":
+          strokeDashOffset = parseLength(value, strokeDashOffset);
+          break;
+        case "opacity":
+          opacity = parseOpacity(value, opacity);
+          break;
+        default:
+          break;
+      }
+    }
+
+    void applyTo(RenderNode.Builder<?> builder) {
+      builder
+          .fillColor(fillColor)
+          .fillAlpha(fillOpacity * opacity)
+          .fillType(fillType)
+          .strokeColor(strokeColor)
+          .strokeAlpha(strokeOpacity * opacity)
+          .strokeWidth(strokeWidth)
+          .strokeLineCap(strokeLineCap)
+          .strokeLineJoin(strokeLineJoin)
+          .strokeMiterLimit(strokeMiterLimit)
+          .strokeDashArray(strokeDashArray)
+          .strokeDashOffset(strokeDashOffset);
+    }
+  }
+
+  @ColorInt
+  private static int parseColor(String value, @ColorInt int defaultColor) {
+    if ("none".equals(value)) {
+      return Color.TRANSPARENT;
+    }
+    if (value.startsWith("#") && value.length() == 4) {
+      // Expand the #rgb shorthand to #rrggbb.
+      final char r = value.charAt(1);
+      final char g = value.charAt(2);
+      final char b = value.charAt(3);
+      value = new String(new char[] {'#', r, r, g, g, b, b});
+    }
+    if (value.startsWith("rgb(") && value.endsWith(")")) {
+      final String[] channels = value.substring(4, value.length() - 1).split(",");
+      if (channels.length == 3) {
+        return Color.rgb(
+            parseColorChannel(channels[0]),
+            parseColorChannel(channels[1]),
+            parseColorChannel(channels[2]));
+      }
+      return defaultColor;
+    }
+    try {
+      return Color.parseColor(value);
+    } catch (IllegalArgumentException e) {
+      Log.w(TAG, "Unsupported color: " + value);
+      return defaultColor;
+    }
+  }
+
+  private static int parseColorChannel(String channel) {
+    channel = channel.trim();
+    final float value =
+        channel.endsWith("%")
+            ? parseFloat(channel.substring(0, channel.length() - 1), 0) * 2.55f
+            : parseFloat(channel, 0);
+    return Math.max(0, Math.min(255, Math.round(value)));
+  }
+
+  private static float parseOpacity(String value, float defaultValue) {
+    return Math.max(0, Math.min(1, parseFloat(value, defaultValue)));
+  }
+
+  @Nullable
+  private static float[] parseDashArray(String value) {
+    if ("none".equals(value)) {
+      return null;
+    }
+    final float[] dashes = parseFloats(value);
+    if (dashes.length % 2 == 0) {
+      return dashes.length == 0 ? null : dashes;
+    }
+    // Odd length dash arrays are repeated to yield an even number of values.
+    final float[] evenDashes = new float[dashes.length * 2];
+    System.arraycopy(dashes, 0, evenDashes, 0, dashes.length);
+    System.arraycopy(dashes, 0, evenDashes, dashes.length, dashes.length);
+    return evenDashes;
+  }
+
+  // </editor-fold>
+
+  // <editor-fold desc="Numbers">
+
+  private static float getFloat(XmlPullParser parser, String name, float defaultValue) {
+    return parseLength(parser.getAttributeValue(null, name), defaultValue);
+  }
+
+  /**
+   * Parses a length in user units. Absolute units are converted to user units, and percentages
+   * aren't supported.
+   */
+  private static float parseLength(@Nullable String value, float defaultValue) {
+    if (value == null) {
+      return defaultValue;
+    }
+    value = value.trim();
+    float unitScale = 1;
+    if (value.endsWith("%")) {
+      return defaultValue;
+    } else if (value.endsWith("px")) {
+      value = value.substring(0, value.length() - 2);
+    } else if (value.endsWith("in")) {
+      value = value.substring(0, value.length() - 2);
+      unitScale = PIXELS_PER_INCH;
+    } else if (value.endsWith("cm")) {
+      value = value.substring(0, value.length() - 2);
+      unitScale = PIXELS_PER_INCH / 2.54f;
+    } else if (value.endsWith("mm")) {
+      value = value.substring(0, value.length() - 2);
+      unitScale = PIXELS_PER_INCH / 25.4f;
+    } else if (value.endsWith("pt")) {
+      value = value.substring(0, value.length() - 2);
+      unitScale = PIXELS_PER_INCH / 72;
+    } else if (value.endsWith("pc")) {
+      value = value.substring(0, value.length() - 2);
+      unitScale = PIXELS_PER_INCH / 6;
+    }
+    return parseFloat(value, defaultValue / unitScale) * unitScale;
+  }
+
+  private static float parseFloat(String value, float defaultValue) {
+    try {
+      return Float.parseFloat(value.trim());
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  /** Parses a list of numbers separated by whitespace and/or commas. */
+  @NonNull
+  private static float[] parseFloats(@Nullable String value) {
+    if (value == null) {
+      return new float[0];
+    }
+    final String trimmed = value.trim();
+    if (trimmed.isEmpty()) {
+      return new float[0];
+    }
+    final String[] tokens = trimmed.split("[\\s,]+");
+    final float[] floats = new float[tokens.length];
+    for (int i = 0; i < tokens.length; i++) {
+      floats[i] = parseFloat(tokens[i], 0);
+    }
+    return floats;
+  }
+
+  // </editor-fold>
+}
@@ -22,7 +22,7 @@ import org.xmlpull.v1.XmlPullParser;
  * id value as "android:pathData" in Lollipop, we need to match the attribute's namefirst.
  */
 final class TypedArrayUtils {
-  private static final String NAMESPACE = "http://schemas.android.com/apk/res/android";
+  static final String NAMESPACE = "http://schemas.android.com/apk/res/android";
 
   /**
    * @return Whether the current node of the {@link XmlPullParser} has an attribute with the
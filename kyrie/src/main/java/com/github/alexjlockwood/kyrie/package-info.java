@@ -19,7 +19,6 @@ package com.github.alexjlockwood.kyrie;
 // TODO: allow null start values for PVH and Keyframe (and then infer their values)
 // TODO: rename 'x/y' property to 'left/top' in RectangleNode?
 // TODO: double check for copy/paste errors in the builders/nodes/layers
-// TODO: reuse paint/other objects more diligently across layers?
 // TODO: make it impossible to add 'transform' wrappers to keyframes over and over and over
 // TODO: make all strings/pathdata args non null?
 // TODO: make it possible to pass Keyframe<PointF> to translate(), scale(), etc.
@@ -32,11 +31,9 @@ package com.github.alexjlockwood.kyrie;
 // TODO: support stroked clip paths?
 // TODO: think more about how each node builder has two overloaded methods per property
 // TODO: support setting playback speed?
-// TODO: allow user to inflate from xml resource as well as drawable resource?
 // TODO: support playing animation in reverse?
 // TODO: avoid using bitmap internally (encourage view software rendering instead)
 // TODO: test inflating multi-file AVDs
-// TODO: create kyrie view?
 // TODO: make it clear what stuff shouldn't change after the kyrie drawable has been created!!!!!!!!
 // TODO: customize behavior when ValueAnimator#areAnimatorsEnabled returns true
 // TODO: make sure it works with AnimatedStateListDrawable?
@@ -15,7 +15,7 @@ final class SampleOnSeekBarChangeListener implements SeekBar.OnSeekBarChangeList
   @Override
   public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
     final long totalDuration = drawable.getTotalDuration();
-    drawable.setCurrentPlayTime((long) (progress / 100f * totalDuration));
+    drawable.seekTo((long) (progress / 100f * totalDuration));
   }
 
   @Override